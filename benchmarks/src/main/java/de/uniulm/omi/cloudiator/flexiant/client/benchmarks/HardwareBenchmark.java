@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.benchmarks;
+
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Hardware;
+import de.uniulm.omi.cloudiator.flexiant.client.fake.SyntheticExtility;
+import io.github.cloudiator.flexiant.extility.Cluster;
+import io.github.cloudiator.flexiant.extility.ProductOffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the computation of the hardware catalog from product offers.
+ * <p>
+ * Run with "-prof gc" to also report the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2) @Measurement(iterations = 5, time = 2) @Fork(1)
+@State(Scope.Benchmark)
+public class HardwareBenchmark {
+
+    @Param({"10", "100"}) public int clusters;
+
+    @Param({"50", "500"}) public int offersPerKind;
+
+    private List<Cluster> clusterList;
+    private List<ProductOffer> offers;
+
+    @Setup public void setUp() {
+        this.clusterList = SyntheticExtility.clusters(clusters);
+        this.offers = SyntheticExtility.productOffers(offersPerKind, offersPerKind, clusterList);
+    }
+
+    @Benchmark public Set<Hardware> fromOffers() {
+        return Hardware.from(offers, clusterList);
+    }
+
+    @Benchmark public void coresAndRam(final Blackhole blackhole) {
+        for (Hardware hardware : Hardware.from(offers.subList(0, 10), clusterList)) {
+            blackhole.consume(hardware.getCores());
+            blackhole.consume(hardware.getRam());
+            blackhole.consume(hardware.getDiskSpace());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.benchmarks;
+
+import de.uniulm.omi.cloudiator.flexiant.client.compute.ClientConfiguration;
+import de.uniulm.omi.cloudiator.flexiant.client.compute.FlexiantComputeClient;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.ServerTemplate;
+import de.uniulm.omi.cloudiator.flexiant.client.fake.FakeFco;
+import de.uniulm.omi.cloudiator.flexiant.client.metrics.Histogram;
+import io.github.cloudiator.flexiant.extility.Image;
+import io.github.cloudiator.flexiant.extility.ProductComponent;
+import io.github.cloudiator.flexiant.extility.ProductOffer;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import io.github.cloudiator.flexiant.extility.Value;
+import io.github.cloudiator.flexiant.extility.Vdc;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of the compute client against a {@link FakeFco}.
+ * <p>
+ * Worker threads issue a mix of getServers, createServer and deleteServer calls for
+ * the configured duration. Afterwards, the throughput, the latency percentiles and the
+ * errors are reported per operation. Options are passed as key=value arguments:
+ * <pre>
+ * java -cp target/benchmarks.jar de.uniulm.omi.cloudiator.flexiant.client.benchmarks.LoadTest \
+ *     threads=32 seconds=60 servers=5000 latencyMillis=20 jobMillis=500 createRatio=0.05
+ * </pre>
+ * Further options are clusters, errorRate, jobFailureRate, throttle, poolSize and
+ * streamListings.
+ */
+public final class LoadTest {
+
+    private static final String GET_SERVERS = "getServers";
+    private static final String CREATE_SERVER = "createServer";
+    private static final String DELETE_SERVER = "deleteServer";
+
+    private final Map<String, String> options;
+    private final Map<String, Histogram> latencies;
+    private final Map<String, LongAdder> errors;
+    private final ConcurrentLinkedQueue<String> createdServers;
+
+    private LoadTest(final Map<String, String> options) {
+        this.options = options;
+        this.latencies = new HashMap<>();
+        this.errors = new HashMap<>();
+        for (String operation : new String[] {GET_SERVERS, CREATE_SERVER, DELETE_SERVER}) {
+            latencies.put(operation, new Histogram());
+            errors.put(operation, new LongAdder());
+        }
+        this.createdServers = new ConcurrentLinkedQueue<>();
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            final String[] keyValue = arg.split("=", 2);
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Expected key=value, but got " + arg);
+            }
+            options.put(keyValue[0], keyValue[1]);
+        }
+        new LoadTest(options).run();
+    }
+
+    private int intOption(final String key, final int defaultValue) {
+        return options.containsKey(key) ? Integer.parseInt(options.get(key)) : defaultValue;
+    }
+
+    private double doubleOption(final String key, final double defaultValue) {
+        return options.containsKey(key) ? Double.parseDouble(options.get(key)) : defaultValue;
+    }
+
+    private void run() throws Exception {
+        final int threads = intOption("threads", 16);
+        final int seconds = intOption("seconds", 30);
+        final double createRatio = doubleOption("createRatio", 0.05);
+
+        try (FakeFco fco = new FakeFco.FakeFcoBuilder().clusters(intOption("clusters", 2))
+            .servers(intOption("servers", 1000))
+            .latency(intOption("latencyMillis", 20), TimeUnit.MILLISECONDS)
+            .jobDuration(intOption("jobMillis", 500), TimeUnit.MILLISECONDS)
+            .errorRate(doubleOption("errorRate", 0))
+            .jobFailureRate(doubleOption("jobFailureRate", 0))
+            .throttle(doubleOption("throttle", 0)).build()
+            .start("http://localhost:" + freePort() + "/fco")) {
+
+            final FlexiantComputeClient client =
+                new FlexiantComputeClient(fco.getAddress(), "customer/loadtest", "secret",
+                    new ClientConfiguration.ClientConfigurationBuilder().useBundledWsdl(true)
+                        .poolSize(intOption("poolSize", threads))
+                        .streamListings(Boolean.parseBoolean(options.get("streamListings")))
+                        .build());
+            final List<ServerTemplate> templates = templates(fco);
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            final CountDownLatch done = new CountDownLatch(threads);
+            for (int i = 0; i < threads; i++) {
+                final Thread worker = new Thread(() -> {
+                    try {
+                        while (System.nanoTime() < deadline) {
+                            step(client, templates, createRatio);
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }, "load-test-" + i);
+                worker.setDaemon(true);
+                worker.start();
+            }
+            done.await();
+            report(seconds);
+        }
+    }
+
+    private void step(final FlexiantComputeClient client, final List<ServerTemplate> templates,
+        final double createRatio) {
+        final double r = ThreadLocalRandom.current().nextDouble();
+        if (r < createRatio) {
+            final ServerTemplate template =
+                templates.get(ThreadLocalRandom.current().nextInt(templates.size()));
+            measure(CREATE_SERVER, () -> createdServers.add(client.createServer(template).getId()));
+        } else if (r < 2 * createRatio) {
+            final String serverUUID = createdServers.poll();
+            if (serverUUID != null) {
+                measure(DELETE_SERVER, () -> client.deleteServer(serverUUID));
+            }
+        } else {
+            measure(GET_SERVERS, () -> client.getServers(null));
+        }
+    }
+
+    private void measure(final String operation, final Call call) {
+        final long start = System.nanoTime();
+        try {
+            call.call();
+        } catch (Exception e) {
+            errors.get(operation).increment();
+        } finally {
+            latencies.get(operation).record(System.nanoTime() - start);
+        }
+    }
+
+    private void report(final int seconds) {
+        System.out.printf("%-14s %10s %10s %10s %10s %10s %8s%n", "operation", "count", "ops/s",
+            "p50 ms", "p99 ms", "max ms", "errors");
+        for (Map.Entry<String, Histogram> entry : latencies.entrySet()) {
+            final Histogram histogram = entry.getValue();
+            System.out.printf("%-14s %10d %10.1f %10.1f %10.1f %10.1f %8d%n", entry.getKey(),
+                histogram.getCount(), (double) histogram.getCount() / seconds,
+                histogram.getPercentile(50) / 1e6, histogram.getPercentile(99) / 1e6,
+                histogram.getMax() / 1e6, errors.get(entry.getKey()).sum());
+        }
+    }
+
+    private static List<ServerTemplate> templates(final FakeFco fco) {
+        final List<ProductOffer> offers =
+            fco.getResources(ResourceType.PRODUCTOFFER, ProductOffer.class);
+        final ProductOffer machine = offerWith(offers, "cpu");
+        final ProductOffer disk = offerWith(offers, "size");
+        final List<ServerTemplate> templates = new ArrayList<>();
+        for (Image image : fco.getResources(ResourceType.IMAGE, Image.class)) {
+            for (Vdc vdc : fco.getResources(ResourceType.VDC, Vdc.class)) {
+                if (vdc.getResourceUUID().equals(image.getVdcUUID())) {
+                    templates.add(new ServerTemplate.FlexiantServerTemplateBuilder()
+                        .serverName("load-test").serverProductOffer(machine.getResourceUUID())
+                        .diskProductOffer(disk.getResourceUUID()).vdc(vdc.getResourceUUID())
+                        .image(image.getResourceUUID()).build());
+                }
+            }
+        }
+        return templates;
+    }
+
+    private static ProductOffer offerWith(final List<ProductOffer> offers, final String key) {
+        for (ProductOffer offer : offers) {
+            for (ProductComponent component : offer.getComponentConfig()) {
+                for (Value value : component.getProductConfiguredValues()) {
+                    if (key.equals(value.getKey())) {
+                        return offer;
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("No offer with key " + key);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private interface Call {
+        void call() throws Exception;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.benchmarks;
+
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Server;
+import de.uniulm.omi.cloudiator.flexiant.client.fake.SyntheticExtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks the mapping of extility servers to domain servers and the ip lookups
+ * on them.
+ * <p>
+ * Run with "-prof gc" to also report the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2) @Measurement(iterations = 5, time = 2) @Fork(1)
+@State(Scope.Benchmark)
+public class ServerBenchmark {
+
+    @Param({"1000", "10000"}) public int servers;
+
+    private List<io.github.cloudiator.flexiant.extility.Server> extilityServers;
+    private Set<Server> domainServers;
+    private String lastIp;
+
+    @Setup public void setUp() {
+        this.extilityServers = SyntheticExtility.servers(servers, SyntheticExtility.clusters(10));
+        this.domainServers = mapToDomain();
+        this.lastIp = SyntheticExtility.ipv4(servers - 1);
+    }
+
+    /**
+     * The mapping done by every getter of the compute client.
+     */
+    @Benchmark public Set<Server> mapToDomain() {
+        return extilityServers.stream().map(Server::new).collect(Collectors.toSet());
+    }
+
+    @Benchmark public void publicIpAddress(final Blackhole blackhole) {
+        for (Server server : domainServers) {
+            blackhole.consume(server.getPublicIpAddress());
+        }
+    }
+
+    /**
+     * The linear search of FlexiantComputeClient#searchByIp, for an ip at the end.
+     */
+    @Benchmark public Server searchByIp() {
+        for (Server server : domainServers) {
+            if (lastIp.equals(server.getPublicIpAddress())) {
+                return server;
+            }
+            if (lastIp.equals(server.getPrivateIpAddress())) {
+                return server;
+            }
+        }
+        return null;
+    }
+}
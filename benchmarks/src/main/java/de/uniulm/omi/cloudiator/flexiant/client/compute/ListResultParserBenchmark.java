@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import de.uniulm.omi.cloudiator.flexiant.client.fake.SyntheticExtility;
+import de.uniulm.omi.cloudiator.flexiant.client.fake.FakeFcoProvider;
+import io.github.cloudiator.flexiant.extility.ListResult;
+import io.github.cloudiator.flexiant.extility.ObjectFactory;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing a listResources response of servers with JAXB against the
+ * {@link ListResultParser}. Run with {@code -prof gc} to compare the allocations.
+ * <p>
+ * The response payload is marshalled by JAXB from synthetic servers, so both
+ * parsers read the format of the generated classes.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2) @Measurement(iterations = 5, time = 2) @Fork(1)
+@State(Scope.Benchmark)
+public class ListResultParserBenchmark {
+
+    @Param({"1000", "10000"}) public int servers;
+
+    private XMLInputFactory inputFactory;
+    private Unmarshaller unmarshaller;
+    private byte[] payload;
+
+    @Setup public void setUp() throws Exception {
+        final ListResult listResult = new ListResult();
+        listResult.getList()
+            .addAll(SyntheticExtility.servers(servers, SyntheticExtility.clusters(10)));
+        listResult.setTotalCount((long) servers);
+
+        final JAXBContext context = JAXBContext.newInstance(ObjectFactory.class);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        context.createMarshaller()
+            .marshal(FakeFcoProvider.response("listResources", listResult), out);
+        this.payload = out.toByteArray();
+        this.unmarshaller = context.createUnmarshaller();
+        this.inputFactory = XMLInputFactory.newInstance();
+    }
+
+    @Benchmark public Object jaxb() throws Exception {
+        return unmarshaller.unmarshal(new StreamSource(new ByteArrayInputStream(payload)));
+    }
+
+    @Benchmark public ListResult stax() throws Exception {
+        final XMLStreamReader reader =
+            inputFactory.createXMLStreamReader(new ByteArrayInputStream(payload));
+        try {
+            return ListResultParser.parse(reader, ResourceType.SERVER);
+        } finally {
+            reader.close();
+        }
+    }
+}
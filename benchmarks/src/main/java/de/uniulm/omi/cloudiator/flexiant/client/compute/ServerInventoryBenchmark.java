@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import de.uniulm.omi.cloudiator.flexiant.client.fake.SyntheticExtility;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks the ip index of the server inventory, the alternative to the linear
+ * search in {@link de.uniulm.omi.cloudiator.flexiant.client.benchmarks.ServerBenchmark}.
+ * <p>
+ * Lives in the package of the client, as the inventory is package private.
+ */
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2) @Measurement(iterations = 5, time = 2) @Fork(1)
+@State(Scope.Benchmark)
+public class ServerInventoryBenchmark {
+
+    @Param({"1000", "10000"}) public int servers;
+
+    private Set<Server> domainServers;
+    private ServerInventory inventory;
+    private String lastIp;
+
+    @Setup public void setUp() {
+        this.domainServers =
+            SyntheticExtility.servers(servers, SyntheticExtility.clusters(10)).stream()
+                .map(Server::new).collect(Collectors.toSet());
+        this.inventory = new ServerInventory(domainServers);
+        this.lastIp = SyntheticExtility.ipv4(servers - 1);
+    }
+
+    @Benchmark public ServerInventory buildInventory() {
+        return new ServerInventory(domainServers);
+    }
+
+    @Benchmark public Server getServerByIp() {
+        return inventory.getServerByIp(lastIp);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.fake;
+
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.uniulm.omi.cloudiator.flexiant.client.recording.Recording;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Serves the SOAP traffic recorded by a
+ * {@link de.uniulm.omi.cloudiator.flexiant.client.recording.RecordingHandler}.
+ * <p>
+ * Every request is answered with the recorded response of an identical request,
+ * byte for byte, after the recorded duration multiplied by the time scale. Identical
+ * requests recorded multiple times, e.g. the polling of a job, are answered in the
+ * recorded order, repeating the last response when the recording is exhausted.
+ * Requests which were not recorded are answered with a fault.
+ * <p>
+ * The replay does not serve a WSDL, clients have to use the bundled one.
+ */
+public class ReplayFco implements AutoCloseable {
+
+    private final Path directory;
+    private final double timeScale;
+    private final Map<String, List<Recording.Entry>> entries;
+    private final Map<String, AtomicInteger> cursors;
+    private final ExecutorService requestExecutor;
+    private HttpServer server;
+    private String address;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param directory the directory of the recording.
+     * @param timeScale the factor applied to the recorded durations, 0 to answer at once.
+     * @throws IOException if the recording can not be read.
+     */
+    public ReplayFco(final Path directory, final double timeScale) throws IOException {
+        checkNotNull(directory);
+        checkArgument(timeScale >= 0, "Time scale must not be negative.");
+        this.directory = directory;
+        this.timeScale = timeScale;
+        this.entries = new HashMap<>();
+        this.cursors = new HashMap<>();
+        for (Recording.Entry entry : Recording.readIndex(directory)) {
+            this.entries.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(entry);
+            this.cursors.putIfAbsent(entry.getKey(), new AtomicInteger());
+        }
+        this.requestExecutor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "replay-fco");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts serving the recording.
+     *
+     * @param address the address to serve at, e.g. http://localhost:8080/fco.
+     * @return this replay.
+     * @throws IOException if the server can not be started.
+     */
+    public synchronized ReplayFco start(final String address) throws IOException {
+        checkNotNull(address);
+        checkState(server == null, "Already started.");
+        final URI uri = URI.create(address);
+        this.server = HttpServer.create(new InetSocketAddress(uri.getHost(), uri.getPort()), 0);
+        this.server.createContext(uri.getPath().isEmpty() ? "/" : uri.getPath(), this::handle);
+        this.server.setExecutor(requestExecutor);
+        this.server.start();
+        this.address = address;
+        return this;
+    }
+
+    /**
+     * @return the address the replay is served at.
+     */
+    public synchronized String getAddress() {
+        checkState(address != null, "Not started.");
+        return address;
+    }
+
+    /**
+     * @return the number of recorded calls.
+     */
+    public int size() {
+        return entries.values().stream().mapToInt(List::size).sum();
+    }
+
+    @Override public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+        requestExecutor.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            final byte[] request = ByteStreams.toByteArray(exchange.getRequestBody());
+            final Recording.Entry entry = next(Recording.keyOf(request));
+            if (entry == null) {
+                respond(exchange, 500, fault(
+                    "No recorded response for " + Recording.operationOf(request) + "."));
+                return;
+            }
+            final long delayMicros = (long) (entry.getDurationMicros() * timeScale);
+            if (delayMicros > 0) {
+                TimeUnit.MICROSECONDS.sleep(delayMicros);
+            }
+            respond(exchange, entry.isFault() ? 500 : 200,
+                Files.readAllBytes(Recording.responseFile(directory, entry.getSequence())));
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 500, fault(e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Recording.Entry next(final String key) {
+        final List<Recording.Entry> candidates = entries.get(key);
+        if (candidates == null) {
+            return null;
+        }
+        final int index = cursors.get(key).getAndIncrement();
+        return candidates.get(Math.min(index, candidates.size() - 1));
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final byte[] body)
+        throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] fault(final String message) {
+        return ("<S:Envelope xmlns:S=\"http://schemas.xmlsoap.org/soap/envelope/\"><S:Body>"
+            + "<S:Fault><faultcode>S:Server</faultcode><faultstring>" + escape(message)
+            + "</faultstring></S:Fault></S:Body></S:Envelope>").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String escape(final String text) {
+        return String.valueOf(text).replace("&", "&amp;").replace("<", "&lt;")
+            .replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.api;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Wraps a {@link FlexiantException} with an unchecked exception.
+ * <p>
+ * Used where the checked exception can not be thrown, e.g. while consuming
+ * a lazily loaded stream of resources.
+ */
+public class UncheckedFlexiantException extends RuntimeException {
+
+    /**
+     * Default serial version.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @see java.lang.RuntimeException#RuntimeException(String, Throwable)
+     */
+    public UncheckedFlexiantException(String message, FlexiantException cause) {
+        super(message, checkNotNull(cause));
+    }
+
+    /**
+     * @see java.lang.RuntimeException#RuntimeException(Throwable)
+     */
+    public UncheckedFlexiantException(FlexiantException cause) {
+        super(checkNotNull(cause));
+    }
+
+    /**
+     * @return the wrapped flexiant exception.
+     */
+    @Override public synchronized FlexiantException getCause() {
+        return (FlexiantException) super.getCause();
+    }
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.uniulm.omi.cloudiator.flexiant.client.api.FlexiantException;
+import de.uniulm.omi.cloudiator.flexiant.client.api.UncheckedFlexiantException;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Hardware;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Image;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Location;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Network;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Server;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.ServerTemplate;
+import io.github.cloudiator.flexiant.extility.ServerStatus;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Asynchronous variant of the {@link FlexiantComputeClient}.
+ * <p>
+ * Every operation is executed on the configured executor and returns a future,
+ * which is completed with the result of the operation or exceptionally with the
+ * {@link FlexiantException} thrown by it. By default, every operation runs on its own
+ * virtual thread if the jvm supports them, otherwise on a cached pool of daemon threads.
+ * <p>
+ * The number of calls executed concurrently against the api is still bounded by the
+ * pool size of the wrapped client.
+ *
+ * @see ClientConfiguration#getPoolSize()
+ */
+public class AsyncFlexiantComputeClient implements AutoCloseable {
+
+    /**
+     * An operation of the synchronous client.
+     *
+     * @param <T> the type of the result.
+     */
+    @FunctionalInterface private interface Operation<T> {
+        T execute() throws FlexiantException;
+    }
+
+    private final FlexiantComputeClient client;
+    private final Executor executor;
+    @Nullable private final ExecutorService ownedExecutor;
+
+    /**
+     * Constructor for the class, using the default executor.
+     *
+     * @param client the synchronous client executing the operations.
+     */
+    public AsyncFlexiantComputeClient(final FlexiantComputeClient client) {
+        checkNotNull(client);
+        this.client = client;
+        this.ownedExecutor = defaultExecutor();
+        this.executor = this.ownedExecutor;
+    }
+
+    /**
+     * Constructor for the class.
+     * <p>
+     * The given executor is not shut down by {@link #close()}.
+     *
+     * @param client   the synchronous client executing the operations.
+     * @param executor the executor running the operations.
+     */
+    public AsyncFlexiantComputeClient(final FlexiantComputeClient client,
+        final Executor executor) {
+        checkNotNull(client);
+        checkNotNull(executor);
+        this.client = client;
+        this.executor = executor;
+        this.ownedExecutor = null;
+    }
+
+    /**
+     * Creates an executor using a virtual thread per task if available, otherwise
+     * a cached pool of daemon threads.
+     *
+     * @return the default executor.
+     */
+    static ExecutorService defaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat("flexiant-async-%d").setDaemon(true)
+                    .build());
+        }
+    }
+
+    /**
+     * @return the synchronous client executing the operations.
+     */
+    public FlexiantComputeClient getClient() {
+        return client;
+    }
+
+    /**
+     * @see FlexiantComputeClient#getServers(String, String)
+     */
+    public CompletableFuture<Set<Server>> getServers(final String prefix,
+        @Nullable final String locationUUID) {
+        return submit(() -> client.getServers(prefix, locationUUID));
+    }
+
+    /**
+     * @see FlexiantComputeClient#getServers(String)
+     */
+    public CompletableFuture<Set<Server>> getServers(@Nullable final String locationUUID) {
+        return submit(() -> client.getServers(locationUUID));
+    }
+
+    /**
+     * @see FlexiantComputeClient#getServersByUUID(Collection)
+     */
+    public CompletableFuture<Map<String, Server>> getServersByUUID(
+        final Collection<String> serverUUIDs) {
+        return submit(() -> client.getServersByUUID(serverUUIDs));
+    }
+
+    /**
+     * @see FlexiantComputeClient#getServer(String)
+     */
+    public CompletableFuture<Server> getServer(final String serverUUID) {
+        return submit(() -> client.getServer(serverUUID));
+    }
+
+    /**
+     * @see FlexiantComputeClient#getServerByIp(String, String)
+     */
+    public CompletableFuture<Server> getServerByIp(final String ip,
+        @Nullable final String locationUUID) {
+        return submit(() -> client.getServerByIp(ip, locationUUID));
+    }
+
+    /**
+     * @see FlexiantComputeClient#getServerByIp(String, String, String)
+     */
+    public CompletableFuture<Server> getServerByIp(final String ip, final String filter,
+        @Nullable final String locationUUID) {
+        return submit(() -> client.getServerByIp(ip, filter, locationUUID));
+    }
+
+    /**
+     * @see FlexiantComputeClient#getImages(String)
+     */
+    public CompletableFuture<Set<Image>> getImages(@Nullable final String locationUUID) {
+        return submit(() -> client.getImages(locationUUID));
+    }
+
+    /**
+     * @see FlexiantComputeClient#getImagesByUUID(Collection)
+     */
+    public CompletableFuture<Map<String, Image>> getImagesByUUID(
+        final Collection<String> imageUUIDs) {
+        return submit(() -> client.getImagesByUUID(imageUUIDs));
+    }
+
+    /**
+     * @see FlexiantComputeClient#getImage(String)
+     */
+    public CompletableFuture<Image> getImage(final String imageUUID) {
+        return submit(() -> client.getImage(imageUUID));
+    }
+
+    /**
+     * @see FlexiantComputeClient#getLocations()
+     */
+    public CompletableFuture<Set<Location>> getLocations() {
+        return submit(client::getLocations);
+    }
+
+    /**
+     * @see FlexiantComputeClient#getLocation(String)
+     */
+    public CompletableFuture<Location> getLocation(final String locationUUID) {
+        return submit(() -> client.getLocation(locationUUID));
+    }
+
+    /**
+     * @see FlexiantComputeClient#getHardwareFlavors(String)
+     */
+    public CompletableFuture<Set<Hardware>> getHardwareFlavors(
+        @Nullable final String locationUUID) {
+        return submit(() -> client.getHardwareFlavors(locationUUID));
+    }
+
+    /**
+     * @see FlexiantComputeClient#getHardware(String, String)
+     */
+    public CompletableFuture<Hardware> getHardware(final String hardwareUUID,
+        final String locationUUID) {
+        return submit(() -> client.getHardware(hardwareUUID, locationUUID));
+    }
+
+    /**
+     * @see FlexiantComputeClient#getNetworks(String)
+     */
+    public CompletableFuture<Set<Network>> getNetworks(@Nullable final String locationUUID) {
+        return submit(() -> client.getNetworks(locationUUID));
+    }
+
+    /**
+     * Passes all servers to the given consumer, on the executor.
+     * <p>
+     * The servers are requested page by page while they are consumed, so at most one
+     * page is held in memory. The future is completed once all servers were consumed.
+     *
+     * @param locationUUID optional location of the server, if null it will be ignored.
+     * @param pageSize     the number of servers requested per call.
+     * @param consumer     the consumer of the servers.
+     * @return a future completed once all servers were consumed.
+     * @see FlexiantComputeClient#streamServers(String, int)
+     */
+    public CompletableFuture<Void> streamServers(@Nullable final String locationUUID,
+        final int pageSize, final Consumer<? super Server> consumer) {
+        return consume(() -> client.streamServers(locationUUID, pageSize), consumer);
+    }
+
+    /**
+     * @see AsyncFlexiantComputeClient#streamServers(String, int, Consumer)
+     * @see FlexiantComputeClient#streamImages(String, int)
+     */
+    public CompletableFuture<Void> streamImages(@Nullable final String locationUUID,
+        final int pageSize, final Consumer<? super Image> consumer) {
+        return consume(() -> client.streamImages(locationUUID, pageSize), consumer);
+    }
+
+    /**
+     * @see AsyncFlexiantComputeClient#streamServers(String, int, Consumer)
+     * @see FlexiantComputeClient#streamNetworks(String, int)
+     */
+    public CompletableFuture<Void> streamNetworks(@Nullable final String locationUUID,
+        final int pageSize, final Consumer<? super Network> consumer) {
+        return consume(() -> client.streamNetworks(locationUUID, pageSize), consumer);
+    }
+
+    /**
+     * Creates a server with the given properties.
+     * <p>
+     * Unlike {@link FlexiantComputeClient#createServer(ServerTemplate)}, no thread is
+     * blocked while the server is created and started, the server is only queried once
+     * it is running.
+     *
+     * @see FlexiantComputeClient#createServer(ServerTemplate)
+     */
+    public CompletableFuture<Server> createServer(final ServerTemplate serverTemplate) {
+        return provisionServer(serverTemplate).thenCompose(
+            handle -> handle.running().thenCompose(serverUUID -> submit(handle::awaitRunning)));
+    }
+
+    /**
+     * @see FlexiantComputeClient#provisionServer(ServerTemplate)
+     */
+    public CompletableFuture<ProvisioningHandle> provisionServer(
+        final ServerTemplate serverTemplate) {
+        return submit(() -> client.provisionServer(serverTemplate));
+    }
+
+    /**
+     * @see FlexiantComputeClient#createServers(List, int)
+     */
+    public CompletableFuture<List<OperationResult<Server>>> createServers(
+        final List<ServerTemplate> serverTemplates, final int concurrency) {
+        return submit(() -> client.createServers(serverTemplates, concurrency));
+    }
+
+    /**
+     * Starts the given server.
+     * <p>
+     * Unlike {@link FlexiantComputeClient#startServer(String)}, no thread is blocked while
+     * the job runs, the executor only submits the job.
+     *
+     * @see FlexiantComputeClient#startServer(String)
+     */
+    public CompletableFuture<Void> startServer(final String serverUUID) {
+        return track(() -> client.trackChangeServerStatus(serverUUID, ServerStatus.RUNNING));
+    }
+
+    /**
+     * @see AsyncFlexiantComputeClient#startServer(String)
+     * @see FlexiantComputeClient#startServer(Server)
+     */
+    public CompletableFuture<Void> startServer(final Server server) {
+        return track(() -> client.trackChangeServerStatus(idOf(server), ServerStatus.RUNNING));
+    }
+
+    /**
+     * @see AsyncFlexiantComputeClient#startServer(String)
+     * @see FlexiantComputeClient#stopServer(String)
+     */
+    public CompletableFuture<Void> stopServer(final String serverUUID) {
+        return track(() -> client.trackChangeServerStatus(serverUUID, ServerStatus.STOPPED));
+    }
+
+    /**
+     * @see AsyncFlexiantComputeClient#startServer(String)
+     * @see FlexiantComputeClient#stopServer(Server)
+     */
+    public CompletableFuture<Void> stopServer(final Server server) {
+        return track(() -> client.trackChangeServerStatus(idOf(server), ServerStatus.STOPPED));
+    }
+
+    /**
+     * @see AsyncFlexiantComputeClient#startServer(String)
+     * @see FlexiantComputeClient#deleteServer(String)
+     */
+    public CompletableFuture<Void> deleteServer(final String serverUUID) {
+        return track(() -> client.trackDeleteResource(serverUUID));
+    }
+
+    /**
+     * @see AsyncFlexiantComputeClient#startServer(String)
+     * @see FlexiantComputeClient#deleteServer(Server)
+     */
+    public CompletableFuture<Void> deleteServer(final Server server) {
+        return track(() -> client.trackDeleteResource(idOf(server)));
+    }
+
+    /**
+     * @see FlexiantComputeClient#startServers(Collection)
+     */
+    public CompletableFuture<Map<String, OperationResult<Void>>> startServers(
+        final Collection<String> serverUUIDs) {
+        return submit(() -> client.startServers(serverUUIDs));
+    }
+
+    /**
+     * @see FlexiantComputeClient#stopServers(Collection)
+     */
+    public CompletableFuture<Map<String, OperationResult<Void>>> stopServers(
+        final Collection<String> serverUUIDs) {
+        return submit(() -> client.stopServers(serverUUIDs));
+    }
+
+    /**
+     * @see FlexiantComputeClient#changeServerStatus(Collection, ServerStatus, int)
+     */
+    public CompletableFuture<Map<String, OperationResult<Void>>> changeServerStatus(
+        final Collection<String> serverUUIDs, final ServerStatus status, final int concurrency) {
+        return submit(() -> client.changeServerStatus(serverUUIDs, status, concurrency));
+    }
+
+    /**
+     * @see FlexiantComputeClient#changeServerStatus(String, String, ServerStatus)
+     */
+    public CompletableFuture<Map<String, OperationResult<Void>>> changeServerStatus(
+        final String prefix, @Nullable final String locationUUID, final ServerStatus status) {
+        return submit(() -> client.changeServerStatus(prefix, locationUUID, status));
+    }
+
+    /**
+     * @see FlexiantComputeClient#deleteServers(Collection)
+     */
+    public CompletableFuture<Map<String, OperationResult<Void>>> deleteServers(
+        final Collection<String> serverUUIDs) {
+        return submit(() -> client.deleteServers(serverUUIDs));
+    }
+
+    /**
+     * @see FlexiantComputeClient#deleteServers(String, String)
+     */
+    public CompletableFuture<Map<String, OperationResult<Void>>> deleteServers(
+        final String prefix, @Nullable final String locationUUID) {
+        return submit(() -> client.deleteServers(prefix, locationUUID));
+    }
+
+    /**
+     * Closes the wrapped client and shuts down the default executor. A given executor
+     * is left untouched.
+     *
+     * @see FlexiantComputeClient#close()
+     */
+    @Override public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+        client.close();
+    }
+
+    /**
+     * Consumes the given stream on the executor, loading one page at a time.
+     */
+    private <T> CompletableFuture<Void> consume(final Supplier<Stream<T>> stream,
+        final Consumer<? super T> consumer) {
+        checkNotNull(consumer);
+        return submit(() -> {
+            try (Stream<T> resources = stream.get()) {
+                resources.forEach(consumer);
+            } catch (UncheckedFlexiantException e) {
+                throw e.getCause();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Submits a job on the executor, and completes once the job tracker saw it finish.
+     */
+    private CompletableFuture<Void> track(
+        final Operation<CompletableFuture<Void>> submission) {
+        return submit(submission).thenCompose(tracked -> tracked);
+    }
+
+    private static String idOf(@Nullable final Server server) {
+        if (server == null) {
+            throw new IllegalArgumentException("The given server must not be null.");
+        }
+        return server.getId();
+    }
+
+    private <T> CompletableFuture<T> submit(final Operation<T> operation) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(operation.execute());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Executor running at most a given number of tasks at a time on a shared executor.
+ * <p>
+ * Tasks exceeding the limit are queued without blocking the caller, and are handed to
+ * the shared executor once a running task finished. If the shared executor rejects a
+ * task, e.g. because the client was closed, the task runs on the calling thread, so
+ * that no task is lost.
+ */
+class BoundedExecutor implements Executor {
+
+    private final Executor executor;
+    private final Semaphore permits;
+    private final Queue<Runnable> queue;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param executor the shared executor running the tasks.
+     * @param limit    the maximum number of tasks running at a time.
+     */
+    BoundedExecutor(final Executor executor, final int limit) {
+        checkNotNull(executor);
+        checkArgument(limit > 0, "Limit must be positive.");
+        this.executor = executor;
+        this.permits = new Semaphore(limit);
+        this.queue = new ConcurrentLinkedQueue<>();
+    }
+
+    @Override public void execute(final Runnable task) {
+        checkNotNull(task);
+        queue.add(task);
+        drain();
+    }
+
+    private void drain() {
+        // every added task and every released permit is followed by a drain
+        while (!queue.isEmpty() && permits.tryAcquire()) {
+            final Runnable task = queue.poll();
+            if (task == null) {
+                permits.release();
+                continue;
+            }
+            try {
+                executor.execute(() -> run(task));
+            } catch (RejectedExecutionException e) {
+                run(task);
+            }
+        }
+    }
+
+    private void run(final Runnable task) {
+        try {
+            task.run();
+        } finally {
+            permits.release();
+            drain();
+        }
+    }
+}
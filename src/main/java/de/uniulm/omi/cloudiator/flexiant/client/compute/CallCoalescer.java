@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.reflect.AbstractInvocationHandler;
+import com.google.common.reflect.Reflection;
+import io.github.cloudiator.flexiant.extility.FilterCondition;
+import io.github.cloudiator.flexiant.extility.ListResult;
+import io.github.cloudiator.flexiant.extility.QueryLimit;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import io.github.cloudiator.flexiant.extility.SearchFilter;
+import io.github.cloudiator.flexiant.extility.UserService;
+
+import javax.annotation.Nullable;
+import javax.xml.ws.WebServiceException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Coalesces identical concurrent listResources calls against the user service.
+ * <p>
+ * The first caller of a query executes it, all callers issuing the same query while
+ * it is in flight wait for and share its result, including its failure. Queries are
+ * identical if they have the same resource type, filter conditions and query limit.
+ * Results are only shared while in flight, they are not cached.
+ * <p>
+ * A query in flight is not shared anymore once a call changing resources of its type
+ * was issued, as its result may not reflect the change. Callers waiting for a query get
+ * their own copy of the result list, the listed resources are the same instances for
+ * all callers, so they must not be modified.
+ */
+class CallCoalescer {
+
+    private static final String LIST_RESOURCES = "listResources";
+
+    /**
+     * Calls only changing servers and their jobs, all other changing calls may change
+     * resources of any type.
+     */
+    private static final Set<String> SERVER_CHANGES =
+        ImmutableSet.of("createServer", "changeServerStatus");
+
+    private final ConcurrentMap<List<Object>, Call> inFlight;
+    private final AtomicLong allChanges;
+    private final AtomicLongArray typeChanges;
+
+    /**
+     * No-args constructor.
+     */
+    CallCoalescer() {
+        this.inFlight = new ConcurrentHashMap<>();
+        this.allChanges = new AtomicLong();
+        this.typeChanges = new AtomicLongArray(ResourceType.values().length);
+    }
+
+    /**
+     * Wraps the given service, so that identical concurrent queries are coalesced.
+     *
+     * @param service the service to wrap.
+     * @return the coalescing service.
+     */
+    UserService coalescing(final UserService service) {
+        checkNotNull(service);
+        return Reflection.newProxy(UserService.class, new CoalescingInvocationHandler(service));
+    }
+
+    /**
+     * @return the number of distinct queries currently in flight.
+     */
+    int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Builds the key of a listResources call. The extility classes do not implement
+     * equals, so the key is built from their contents.
+     */
+    private static List<Object> key(final Object[] args) {
+        final List<Object> key = new ArrayList<>();
+        final SearchFilter searchFilter = (SearchFilter) args[0];
+        final QueryLimit queryLimit = (QueryLimit) args[1];
+        key.add(args[2]);
+        if (searchFilter != null) {
+            for (FilterCondition filterCondition : searchFilter.getFilterConditions()) {
+                key.add(Arrays.asList(filterCondition.getField(), filterCondition.getCondition(),
+                    new ArrayList<>(filterCondition.getValue())));
+            }
+        }
+        if (queryLimit != null) {
+            key.add(Arrays.asList(queryLimit.getFrom(), queryLimit.getMaxRecords(),
+                queryLimit.isLoadChildren()));
+        }
+        return key;
+    }
+
+    /**
+     * @return true if the operation with the given name does not change resources.
+     */
+    private static boolean isRead(final String operation) {
+        return operation.startsWith("list") || operation.startsWith("get") || operation
+            .equals("waitForJob");
+    }
+
+    /**
+     * Records a change of resources by the operation with the given name.
+     */
+    private void changed(final String operation) {
+        if (SERVER_CHANGES.contains(operation)) {
+            typeChanges.incrementAndGet(ResourceType.SERVER.ordinal());
+            typeChanges.incrementAndGet(ResourceType.JOB.ordinal());
+        } else {
+            allChanges.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of changes recorded for the given resource type, it grows
+     * with every change.
+     */
+    private long changesOf(@Nullable final ResourceType resourceType) {
+        final long changes = allChanges.get();
+        return resourceType == null ? changes : changes + typeChanges.get(resourceType.ordinal());
+    }
+
+    /**
+     * Copies a shared list result, so that every caller gets its own list. The list and
+     * the total count are the only fields of a list result.
+     */
+    private static Object copy(final Object result) {
+        if (!(result instanceof ListResult)) {
+            return result;
+        }
+        final ListResult listResult = (ListResult) result;
+        final ListResult copy = new ListResult();
+        copy.getList().addAll(listResult.getList());
+        copy.setTotalCount(listResult.getTotalCount());
+        return copy;
+    }
+
+    /**
+     * A query in flight.
+     */
+    private static class Call {
+
+        private final long changes;
+        private final CompletableFuture<Object> future;
+
+        private Call(final long changes) {
+            this.changes = changes;
+            this.future = new CompletableFuture<>();
+        }
+    }
+
+    private class CoalescingInvocationHandler extends AbstractInvocationHandler {
+
+        private final UserService delegate;
+
+        private CoalescingInvocationHandler(final UserService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override protected Object handleInvocation(Object proxy, Method method, Object[] args)
+            throws Throwable {
+            if (!LIST_RESOURCES.equals(method.getName()) || args == null || args.length != 3) {
+                if (isRead(method.getName())) {
+                    return invoke(method, args);
+                }
+                // queries issued before the change completed may not reflect it
+                changed(method.getName());
+                try {
+                    return invoke(method, args);
+                } finally {
+                    changed(method.getName());
+                }
+            }
+
+            final List<Object> key = key(args);
+            final Call call = new Call(changesOf((ResourceType) args[2]));
+            Call existing = inFlight.putIfAbsent(key, call);
+            while (existing != null) {
+                if (existing.changes == call.changes) {
+                    return copy(await(existing.future));
+                }
+                // the query in flight may miss a change, later callers share this one
+                if (inFlight.replace(key, existing, call)) {
+                    break;
+                }
+                existing = inFlight.putIfAbsent(key, call);
+            }
+
+            try {
+                final Object result = invoke(method, args);
+                call.future.complete(result);
+                return result;
+            } catch (Throwable t) {
+                call.future.completeExceptionally(t);
+                throw t;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+
+        private Object invoke(final Method method, final Object[] args) throws Throwable {
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private Object await(final CompletableFuture<Object> call) throws Throwable {
+            try {
+                return call.get();
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebServiceException("Interrupted while waiting for a coalesced call.", e);
+            }
+        }
+
+        @Override public String toString() {
+            return String.format("CallCoalescer{inFlight=%d, delegate=%s}", inFlight.size(),
+                delegate);
+        }
+    }
+}
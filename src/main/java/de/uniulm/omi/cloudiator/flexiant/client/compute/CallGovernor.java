@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.reflect.AbstractInvocationHandler;
+import com.google.common.reflect.Reflection;
+import com.google.common.util.concurrent.RateLimiter;
+import io.github.cloudiator.flexiant.extility.UserService;
+
+import javax.xml.ws.WebServiceException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Governs the calls against the user service.
+ * <p>
+ * Every call first takes a permit from the token bucket of its {@link OperationType}
+ * and afterwards a slot of the adaptive concurrency limit. Both block the caller,
+ * so excess calls queue up on the client instead of overloading the api.
+ * <p>
+ * The concurrency limit follows an AIMD scheme: it grows by one per limit's worth of
+ * successful calls and is halved whenever a call fails with a transport error, is
+ * throttled by the server or exceeds the configured latency threshold. Like TCP, the
+ * limit is halved at most once per round trip: calls which were already in flight
+ * when the limit was halved do not halve it again.
+ * <p>
+ * The limit never exceeds the size of the port pool, so that a governed call does not
+ * wait for a port and its latency is the one of the call alone.
+ */
+class CallGovernor {
+
+    private final Map<OperationType, RateLimiter> rateLimiters;
+    private final AdaptiveLimit limit;
+    private final long latencyThresholdNanos;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param configuration the configuration of the governor.
+     * @param poolSize      the number of pooled ports, caps the configured concurrency.
+     */
+    CallGovernor(final GovernorConfiguration configuration, final int poolSize) {
+        checkNotNull(configuration);
+        checkArgument(poolSize > 0);
+        this.rateLimiters = new EnumMap<>(OperationType.class);
+        for (Map.Entry<OperationType, Double> entry : configuration.getPermitsPerSecond()
+            .entrySet()) {
+            this.rateLimiters.put(entry.getKey(), RateLimiter.create(entry.getValue()));
+        }
+        this.limit =
+            new AdaptiveLimit(Math.min(configuration.getInitialConcurrency(), poolSize),
+                Math.min(configuration.getMinConcurrency(), poolSize),
+                Math.min(configuration.getMaxConcurrency(), poolSize));
+        this.latencyThresholdNanos =
+            TimeUnit.MILLISECONDS.toNanos(configuration.getLatencyThresholdMillis());
+    }
+
+    /**
+     * Wraps the given service, so that all calls are governed.
+     *
+     * @param service the service to wrap.
+     * @return the governed service.
+     */
+    UserService govern(final UserService service) {
+        checkNotNull(service);
+        return Reflection.newProxy(UserService.class, new GovernedInvocationHandler(service));
+    }
+
+    /**
+     * @return the current concurrency limit.
+     */
+    int getConcurrencyLimit() {
+        return limit.get();
+    }
+
+    private class GovernedInvocationHandler extends AbstractInvocationHandler {
+
+        private final UserService delegate;
+
+        private GovernedInvocationHandler(final UserService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override protected Object handleInvocation(Object proxy, Method method, Object[] args)
+            throws Throwable {
+            final RateLimiter rateLimiter =
+                rateLimiters.get(OperationType.of(method.getName()));
+            if (rateLimiter != null) {
+                rateLimiter.acquire();
+            }
+
+            try {
+                limit.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebServiceException("Interrupted while waiting for a free call slot.", e);
+            }
+            final long start = System.nanoTime();
+            boolean overload = false;
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                overload = FailureClassifier.isTransient(e.getCause());
+                throw e.getCause();
+            } finally {
+                final long latency = System.nanoTime() - start;
+                limit.release(start,
+                    overload || (latencyThresholdNanos > 0 && latency > latencyThresholdNanos));
+            }
+        }
+
+        @Override public String toString() {
+            return String.format("CallGovernor{limit=%d, delegate=%s}", limit.get(), delegate);
+        }
+    }
+
+    /**
+     * Concurrency limit with additive increase and multiplicative decrease.
+     * <p>
+     * Uses a lock instead of monitors, so that waiting virtual threads do not pin
+     * their carrier thread.
+     */
+    static class AdaptiveLimit {
+
+        private final int min;
+        private final int max;
+        private final ReentrantLock lock;
+        private final Condition slotAvailable;
+        private double limit;
+        private int inFlight;
+        private long lastDecreaseNanos;
+
+        AdaptiveLimit(final int initial, final int min, final int max) {
+            this.limit = initial;
+            this.min = min;
+            this.max = max;
+            this.lock = new ReentrantLock();
+            this.slotAvailable = lock.newCondition();
+            this.inFlight = 0;
+            this.lastDecreaseNanos = System.nanoTime();
+        }
+
+        int get() {
+            lock.lock();
+            try {
+                return (int) limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void acquire() throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                while (inFlight >= (int) limit) {
+                    slotAvailable.await();
+                }
+                inFlight++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Releases the slot of a finished call.
+         *
+         * @param startNanos the time the call was started at.
+         * @param overload   true if the call signalled an overload.
+         */
+        void release(final long startNanos, final boolean overload) {
+            lock.lock();
+            try {
+                inFlight--;
+                if (overload) {
+                    // calls started before the last decrease belong to the same round trip
+                    if (startNanos - lastDecreaseNanos > 0) {
+                        limit = Math.max(min, limit / 2);
+                        lastDecreaseNanos = System.nanoTime();
+                    }
+                } else if (limit < max) {
+                    limit = Math.min(max, limit + 1 / limit);
+                }
+                slotAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
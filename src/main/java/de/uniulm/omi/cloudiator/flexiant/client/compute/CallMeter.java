@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.reflect.AbstractInvocationHandler;
+import com.google.common.reflect.Reflection;
+import de.uniulm.omi.cloudiator.flexiant.client.metrics.MetricsListener;
+import io.github.cloudiator.flexiant.extility.ListResult;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import io.github.cloudiator.flexiant.extility.UserService;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reports every call against the user service to a {@link MetricsListener}.
+ */
+class CallMeter {
+
+    private final MetricsListener metricsListener;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param metricsListener the listener to report to.
+     */
+    CallMeter(final MetricsListener metricsListener) {
+        checkNotNull(metricsListener);
+        this.metricsListener = metricsListener;
+    }
+
+    /**
+     * Wraps the given service, so that all calls are reported.
+     *
+     * @param service the service to wrap.
+     * @return the metered service.
+     */
+    UserService metered(final UserService service) {
+        checkNotNull(service);
+        return Reflection.newProxy(UserService.class, new MeteredInvocationHandler(service));
+    }
+
+    private static ResourceType resourceTypeOf(final Object[] args) {
+        if (args != null) {
+            for (Object arg : args) {
+                if (arg instanceof ResourceType) {
+                    return (ResourceType) arg;
+                }
+            }
+        }
+        return null;
+    }
+
+    private class MeteredInvocationHandler extends AbstractInvocationHandler {
+
+        private final UserService delegate;
+
+        private MeteredInvocationHandler(final UserService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override protected Object handleInvocation(Object proxy, Method method, Object[] args)
+            throws Throwable {
+            final long start = System.nanoTime();
+            Object result = null;
+            Throwable failure = null;
+            try {
+                result = method.invoke(delegate, args);
+                return result;
+            } catch (InvocationTargetException e) {
+                failure = e.getCause();
+                throw failure;
+            } finally {
+                final int resultSize =
+                    result instanceof ListResult ? ((ListResult) result).getList().size() : -1;
+                metricsListener.onCall(method.getName(), resourceTypeOf(args),
+                    System.nanoTime() - start, resultSize, failure);
+            }
+        }
+
+        @Override public String toString() {
+            return String.format("CallMeter{listener=%s, delegate=%s}", metricsListener, delegate);
+        }
+    }
+}
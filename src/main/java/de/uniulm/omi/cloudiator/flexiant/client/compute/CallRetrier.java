@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.reflect.AbstractInvocationHandler;
+import com.google.common.reflect.Reflection;
+import io.github.cloudiator.flexiant.extility.UserService;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Retries calls against the user service which failed transiently.
+ * <p>
+ * Operations of type {@link OperationType#READ} and {@link OperationType#WAIT} are
+ * idempotent and are retried on every transient failure. Operations of type
+ * {@link OperationType#JOB} are only retried if the request never reached the server,
+ * as repeating them could e.g. create a server twice.
+ * <p>
+ * Between two attempts, the caller sleeps for a random time below an exponentially
+ * growing bound ("full jitter"), so that retries of concurrent callers spread out.
+ * If a circuit breaker is given, every attempt is registered with it.
+ */
+class CallRetrier {
+
+    private final RetryConfiguration configuration;
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param configuration  the retry configuration.
+     * @param circuitBreaker the breaker of the endpoint, may be null.
+     */
+    CallRetrier(final RetryConfiguration configuration, final CircuitBreaker circuitBreaker) {
+        checkNotNull(configuration);
+        this.configuration = configuration;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Wraps the given service, so that failed calls are retried.
+     *
+     * @param service the service to wrap.
+     * @return the retrying service.
+     */
+    UserService retrying(final UserService service) {
+        checkNotNull(service);
+        return Reflection.newProxy(UserService.class, new RetryingInvocationHandler(service));
+    }
+
+    private boolean isRetryable(final OperationType operationType, final Throwable t) {
+        if (operationType == OperationType.JOB) {
+            return FailureClassifier.isBeforeSend(t);
+        }
+        return FailureClassifier.isTransient(t);
+    }
+
+    private long backoffMillis(final int attempt) {
+        final long bound = Math.min(configuration.getMaxBackoffMillis(),
+            configuration.getInitialBackoffMillis() << Math.min(attempt - 1, 30));
+        return bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    private class RetryingInvocationHandler extends AbstractInvocationHandler {
+
+        private final UserService delegate;
+
+        private RetryingInvocationHandler(final UserService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override protected Object handleInvocation(Object proxy, Method method, Object[] args)
+            throws Throwable {
+            final OperationType operationType = OperationType.of(method.getName());
+            int attempt = 1;
+            while (true) {
+                if (circuitBreaker != null) {
+                    circuitBreaker.acquire();
+                }
+                final Throwable failure;
+                try {
+                    final Object result = method.invoke(delegate, args);
+                    if (circuitBreaker != null) {
+                        circuitBreaker.onSuccess();
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    failure = e.getCause();
+                }
+
+                if (circuitBreaker != null) {
+                    circuitBreaker.onFailure(FailureClassifier.isTransient(failure));
+                }
+                if (attempt >= configuration.getMaxAttempts() || !isRetryable(operationType,
+                    failure)) {
+                    throw failure;
+                }
+                try {
+                    Thread.sleep(backoffMillis(attempt));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw failure;
+                }
+                attempt++;
+            }
+        }
+
+        @Override public String toString() {
+            return String.format("CallRetrier{circuitBreaker=%s, delegate=%s}", circuitBreaker,
+                delegate);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+/**
+ * Timestamps and message sizes of a single call, collected by the
+ * {@link MessageTimingHandler} on the calling thread.
+ * <p>
+ * Timestamps are taken after the message was materialized, i.e. after the request
+ * was marshalled respectively the response was read from the transport. The time
+ * the handler spent on measuring the message sizes is tracked separately, so that
+ * it can be excluded from the phases.
+ */
+class CallTiming {
+
+    long outboundNanos = -1;
+    long inboundNanos = -1;
+    long requestBytes = -1;
+    long responseBytes = -1;
+    long outboundOverheadNanos;
+    long inboundOverheadNanos;
+
+    /**
+     * @return true if both the request and the response passed the handler.
+     */
+    boolean isComplete() {
+        return outboundNanos >= 0 && inboundNanos >= 0;
+    }
+}
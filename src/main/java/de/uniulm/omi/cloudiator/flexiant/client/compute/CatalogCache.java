@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import de.uniulm.omi.cloudiator.flexiant.client.api.FlexiantException;
+import io.github.cloudiator.flexiant.extility.Resource;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Time based cache for catalog resources like product offers, clusters, vdcs,
+ * images or networks, which rarely change.
+ * <p>
+ * Per resource type, the cache holds the lists of resources per location and the
+ * single resources by their uuid. Loading a list also fills the uuid lookup.
+ * The cached lists are immutable.
+ *
+ * @see CatalogCacheConfiguration
+ */
+public class CatalogCache {
+
+    /**
+     * Loads the resources with the given uuids from the api on a cache miss.
+     *
+     * @param <T> the type of the loaded resources.
+     */
+    interface BulkLoader<T> {
+        Map<String, T> load(Collection<String> resourceUUIDs) throws FlexiantException;
+    }
+
+    private final Map<ResourceType, Cache<Optional<String>, List<Object>>> lists;
+    private final Map<ResourceType, Cache<String, Object>> resources;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param configuration the configuration of the cache.
+     */
+    public CatalogCache(final CatalogCacheConfiguration configuration) {
+        checkNotNull(configuration);
+
+        this.lists = new EnumMap<>(ResourceType.class);
+        this.resources = new EnumMap<>(ResourceType.class);
+        for (Map.Entry<ResourceType, Long> entry : configuration.getTtlMillis().entrySet()) {
+            this.lists.put(entry.getKey(),
+                CacheBuilder.newBuilder().expireAfterWrite(entry.getValue(), TimeUnit.MILLISECONDS)
+                    .maximumWeight(configuration.getMaximumSize())
+                    .weigher((Optional<String> k, List<Object> v) -> v.size() + 1).recordStats()
+                    .build());
+            this.resources.put(entry.getKey(),
+                CacheBuilder.newBuilder().expireAfterWrite(entry.getValue(), TimeUnit.MILLISECONDS)
+                    .maximumSize(configuration.getMaximumSize()).recordStats().build());
+        }
+    }
+
+    /**
+     * @param resourceType the resource type.
+     * @return true if resources of the given type are cached.
+     */
+    public boolean isCached(final ResourceType resourceType) {
+        return lists.containsKey(resourceType);
+    }
+
+    /**
+     * Returns the cached list of resources, loading it on a miss.
+     *
+     * @param resourceType the resource type, has to be cached.
+     * @param locationUUID optional location of the resources.
+     * @param type         the type of the resulting class.
+     * @param loader       loads the list on a cache miss.
+     * @param <T>          the type of the resulting class.
+     * @return the immutable list of resources.
+     * @throws FlexiantException if the loader fails.
+     */
+    <T> List<T> getResources(final ResourceType resourceType, @Nullable final String locationUUID,
+        final Class<T> type, final ResourceLoader<List<T>> loader) throws FlexiantException {
+
+        checkArgument(isCached(resourceType), "Resource type %s is not cached.", resourceType);
+
+        final List<Object> cached;
+        try {
+            cached = lists.get(resourceType).get(Optional.ofNullable(locationUUID), () -> {
+                final List<Object> loaded = ImmutableList.copyOf(loader.load());
+                final Cache<String, Object> byUUID = resources.get(resourceType);
+                for (Object resource : loaded) {
+                    byUUID.put(((Resource) resource).getResourceUUID(), resource);
+                }
+                return loaded;
+            });
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+        //noinspection unchecked
+        return (List<T>) cached;
+    }
+
+    /**
+     * Returns the cached resources identified by the given uuids, loading the missing ones.
+     *
+     * @param resourceType  the resource type, has to be cached.
+     * @param resourceUUIDs the uuids of the resources.
+     * @param type          the type of the resulting class.
+     * @param loader        loads the resources missing in the cache.
+     * @param <T>           the type of the resulting class.
+     * @return a map of the found resources, keyed by their uuid.
+     * @throws FlexiantException if the loader fails.
+     */
+    <T> Map<String, T> getResourcesByUUID(final ResourceType resourceType,
+        final Collection<String> resourceUUIDs, final Class<T> type, final BulkLoader<T> loader)
+        throws FlexiantException {
+
+        checkArgument(isCached(resourceType), "Resource type %s is not cached.", resourceType);
+
+        final Cache<String, Object> byUUID = resources.get(resourceType);
+        final Map<String, T> found = new HashMap<>(resourceUUIDs.size());
+        final List<String> missing = new ArrayList<>();
+        for (String resourceUUID : resourceUUIDs) {
+            final Object cached = byUUID.getIfPresent(resourceUUID);
+            if (cached != null) {
+                found.put(resourceUUID, type.cast(cached));
+            } else {
+                missing.add(resourceUUID);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            final Map<String, T> loaded = loader.load(missing);
+            byUUID.putAll(loaded);
+            found.putAll(loaded);
+        }
+        return found;
+    }
+
+    /**
+     * Removes all cached resources of the given type.
+     *
+     * @param resourceType the resource type.
+     */
+    public void invalidate(final ResourceType resourceType) {
+        if (isCached(resourceType)) {
+            lists.get(resourceType).invalidateAll();
+            resources.get(resourceType).invalidateAll();
+        }
+    }
+
+    /**
+     * Removes all cached resources.
+     */
+    public void invalidateAll() {
+        lists.keySet().forEach(this::invalidate);
+    }
+
+    /**
+     * Returns the hit and miss statistics of the given resource type.
+     *
+     * @param resourceType the resource type.
+     * @return the statistics, empty if the type is not cached.
+     */
+    public CacheStats getStats(final ResourceType resourceType) {
+        if (!isCached(resourceType)) {
+            return new CacheStats(0, 0, 0, 0, 0, 0);
+        }
+        return lists.get(resourceType).stats().plus(resources.get(resourceType).stats());
+    }
+
+    private static FlexiantException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof FlexiantException) {
+            return (FlexiantException) e.getCause();
+        }
+        return new FlexiantException("Error while loading cached resources", e.getCause());
+    }
+}
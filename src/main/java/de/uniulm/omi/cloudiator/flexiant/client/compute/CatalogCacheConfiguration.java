@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import io.github.cloudiator.flexiant.extility.ResourceType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Configuration of the catalog cache.
+ * <p>
+ * Only resource types with a configured time to live are cached. By default,
+ * nothing is cached. To create a new instance, use the builder.
+ *
+ * @see CatalogCache
+ * @see CatalogCacheConfiguration.CatalogCacheConfigurationBuilder
+ */
+public class CatalogCacheConfiguration {
+
+    private static final ResourceType[] CATALOG_TYPES =
+        {ResourceType.PRODUCTOFFER, ResourceType.CLUSTER, ResourceType.VDC, ResourceType.IMAGE,
+            ResourceType.NETWORK};
+
+    private final Map<ResourceType, Long> ttlMillis;
+    private final long maximumSize;
+
+    private CatalogCacheConfiguration(final Map<ResourceType, Long> ttlMillis,
+        final long maximumSize) {
+
+        checkNotNull(ttlMillis);
+        checkArgument(maximumSize > 0, "Maximum size must be positive.");
+
+        this.ttlMillis = Collections.unmodifiableMap(new EnumMap<>(ttlMillis));
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @return a configuration which does not cache anything.
+     */
+    public static CatalogCacheConfiguration disabled() {
+        return new CatalogCacheConfigurationBuilder().build();
+    }
+
+    /**
+     * @return the time to live in milliseconds per cached resource type.
+     */
+    public Map<ResourceType, Long> getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * @return the maximum number of resources cached per resource type.
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Builder for the catalog cache configuration.
+     *
+     * @see CatalogCacheConfiguration
+     */
+    public static class CatalogCacheConfigurationBuilder {
+
+        private final Map<ResourceType, Long> ttlMillis;
+        private long maximumSize;
+
+        /**
+         * No-args constructor.
+         * <p>
+         * Initializes the builder with the default values.
+         */
+        public CatalogCacheConfigurationBuilder() {
+            this.ttlMillis = new EnumMap<>(ResourceType.class);
+            this.maximumSize = 10000;
+        }
+
+        /**
+         * Caches the given resource type for the given time.
+         * <p>
+         * Only catalog resource types (product offers, clusters, vdcs, images and networks)
+         * can be cached, as the others, e.g. servers and jobs, change too often.
+         *
+         * @param resourceType the resource type to cache.
+         * @param ttl          the time to live of the cached resources.
+         * @param unit         the unit of the time to live.
+         * @return fluent interface
+         * @throws IllegalArgumentException if the resource type is not a catalog type.
+         */
+        public CatalogCacheConfigurationBuilder ttl(final ResourceType resourceType,
+            final long ttl, final TimeUnit unit) {
+            checkNotNull(resourceType);
+            checkArgument(Arrays.asList(CATALOG_TYPES).contains(resourceType),
+                "Resource type %s is not a catalog type.", resourceType);
+            checkNotNull(unit);
+            checkArgument(ttl > 0, "Time to live must be positive.");
+            this.ttlMillis.put(resourceType, unit.toMillis(ttl));
+            return this;
+        }
+
+        /**
+         * Caches all catalog resource types (product offers, clusters, vdcs, images and
+         * networks) for the given time.
+         *
+         * @param ttl  the time to live of the cached resources.
+         * @param unit the unit of the time to live.
+         * @return fluent interface
+         * @see CatalogCacheConfigurationBuilder#ttl(ResourceType, long, TimeUnit)
+         */
+        public CatalogCacheConfigurationBuilder catalogTtl(final long ttl, final TimeUnit unit) {
+            for (ResourceType resourceType : CATALOG_TYPES) {
+                this.ttl(resourceType, ttl, unit);
+            }
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of resources cached per resource type.
+         *
+         * @param maximumSize the maximum number of resources.
+         * @return fluent interface
+         */
+        public CatalogCacheConfigurationBuilder maximumSize(final long maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public CatalogCacheConfiguration build() {
+            return new CatalogCacheConfiguration(this.ttlMillis, this.maximumSize);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import javax.xml.ws.WebServiceException;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Circuit breaker for the endpoint of a client.
+ * <p>
+ * After the configured number of consecutive transient failures, the breaker opens
+ * and calls fail fast with an {@link OpenException}. Once the open duration has passed,
+ * a single trial call is let through: if it succeeds the breaker closes, otherwise
+ * it opens again.
+ * <p>
+ * Every client uses its own breaker, configured by its {@link RetryConfiguration}.
+ */
+public class CircuitBreaker {
+
+    /**
+     * The states of a circuit breaker.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String endpoint;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private State state;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param endpoint          the endpoint guarded by the breaker.
+     * @param failureThreshold  the number of consecutive transient failures opening the breaker.
+     * @param openDurationMillis the time in milliseconds the breaker stays open.
+     */
+    CircuitBreaker(final String endpoint, final int failureThreshold,
+        final long openDurationMillis) {
+        checkNotNull(endpoint);
+        checkArgument(failureThreshold > 0, "Failure threshold must be positive.");
+        checkArgument(openDurationMillis >= 0, "Open duration must not be negative.");
+        this.endpoint = endpoint;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+        this.state = State.CLOSED;
+    }
+
+    /**
+     * Checks whether a call may be executed.
+     *
+     * @throws OpenException if the breaker is open.
+     */
+    synchronized void acquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        switch (state) {
+            case CLOSED:
+                return;
+            case HALF_OPEN:
+                if (!trialInFlight) {
+                    trialInFlight = true;
+                    return;
+                }
+                // fall through, only one trial call at a time
+            default:
+                throw new OpenException(endpoint);
+        }
+    }
+
+    /**
+     * Records a successful call.
+     */
+    synchronized void onSuccess() {
+        failures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Records a failed call.
+     *
+     * @param transientFailure true if the failure was transient.
+     */
+    synchronized void onFailure(final boolean transientFailure) {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+        if (!transientFailure) {
+            // the endpoint answered, so it is available
+            if (state == State.HALF_OPEN) {
+                state = State.CLOSED;
+            }
+            failures = 0;
+            return;
+        }
+        failures++;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * @return the current state of the breaker.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return the endpoint guarded by the breaker.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    @Override public synchronized String toString() {
+        return String.format("CircuitBreaker{endpoint=%s, state=%s, failures=%d}", endpoint,
+            state, failures);
+    }
+
+    /**
+     * Thrown if a call is rejected because the breaker of its endpoint is open.
+     */
+    public static class OpenException extends WebServiceException {
+
+        private OpenException(final String endpoint) {
+            super(String.format("Circuit breaker for endpoint %s is open.", endpoint));
+        }
+    }
+}
@@ -0,0 +1,464 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import de.uniulm.omi.cloudiator.flexiant.client.metrics.MetricsListener;
+import de.uniulm.omi.cloudiator.flexiant.client.metrics.SoapPhaseListener;
+
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Configuration of a flexiant client.
+ * <p>
+ * To create a new instance, use the builder.
+ *
+ * @see ClientConfiguration.ClientConfigurationBuilder
+ */
+public class ClientConfiguration {
+
+    private final int poolSize;
+    private final long borrowTimeoutMillis;
+    private final boolean useBundledWsdl;
+    private final TransportConfiguration transportConfiguration;
+    private final CatalogCacheConfiguration catalogCacheConfiguration;
+    private final long serverStalenessMillis;
+    private final long jobPollIntervalMillis;
+    private final long jobTimeoutMillis;
+    private final GovernorConfiguration governorConfiguration;
+    private final RetryConfiguration retryConfiguration;
+    private final boolean coalesceReads;
+    private final MetricsListener metricsListener;
+    private final SoapPhaseListener soapPhaseListener;
+    @Nullable private final Path recordingDirectory;
+    private final boolean streamListings;
+
+    private ClientConfiguration(final int poolSize, final long borrowTimeoutMillis,
+        final boolean useBundledWsdl, final TransportConfiguration transportConfiguration,
+        final CatalogCacheConfiguration catalogCacheConfiguration,
+        final long serverStalenessMillis, final long jobPollIntervalMillis,
+        final long jobTimeoutMillis, final GovernorConfiguration governorConfiguration,
+        final RetryConfiguration retryConfiguration, final boolean coalesceReads,
+        final MetricsListener metricsListener, final SoapPhaseListener soapPhaseListener,
+        @Nullable final Path recordingDirectory, final boolean streamListings) {
+
+        checkArgument(poolSize > 0, "Pool size must be positive.");
+        checkArgument(borrowTimeoutMillis >= 0, "Borrow timeout must not be negative.");
+        checkNotNull(transportConfiguration);
+        checkNotNull(catalogCacheConfiguration);
+        checkArgument(serverStalenessMillis >= 0, "Server staleness must not be negative.");
+        checkArgument(jobPollIntervalMillis > 0, "Job poll interval must be positive.");
+        checkArgument(jobTimeoutMillis >= 0, "Job timeout must not be negative.");
+        checkNotNull(governorConfiguration);
+        checkNotNull(retryConfiguration);
+        checkNotNull(metricsListener);
+        checkNotNull(soapPhaseListener);
+
+        this.poolSize = poolSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.useBundledWsdl = useBundledWsdl;
+        this.transportConfiguration = transportConfiguration;
+        this.catalogCacheConfiguration = catalogCacheConfiguration;
+        this.serverStalenessMillis = serverStalenessMillis;
+        this.jobPollIntervalMillis = jobPollIntervalMillis;
+        this.jobTimeoutMillis = jobTimeoutMillis;
+        this.governorConfiguration = governorConfiguration;
+        this.retryConfiguration = retryConfiguration;
+        this.coalesceReads = coalesceReads;
+        this.metricsListener = metricsListener;
+        this.soapPhaseListener = soapPhaseListener;
+        this.recordingDirectory = recordingDirectory;
+        this.streamListings = streamListings;
+    }
+
+    /**
+     * @return a configuration using the default values.
+     */
+    public static ClientConfiguration defaults() {
+        return new ClientConfigurationBuilder().build();
+    }
+
+    /**
+     * @return the maximum number of service ports used concurrently.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * @return the time in milliseconds a caller waits for a free service port, 0 means forever.
+     */
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    /**
+     * @return true if the WSDL bundled with the client is used instead of the one of the endpoint.
+     */
+    public boolean isUseBundledWsdl() {
+        return useBundledWsdl;
+    }
+
+    /**
+     * @return the configuration of the http transport.
+     */
+    public TransportConfiguration getTransportConfiguration() {
+        return transportConfiguration;
+    }
+
+    /**
+     * @return the configuration of the catalog cache.
+     */
+    public CatalogCacheConfiguration getCatalogCacheConfiguration() {
+        return catalogCacheConfiguration;
+    }
+
+    /**
+     * @return the maximum age in milliseconds of cached server states, 0 if servers are not cached.
+     */
+    public long getServerStalenessMillis() {
+        return serverStalenessMillis;
+    }
+
+    /**
+     * @return the time in milliseconds between two status queries of outstanding jobs.
+     */
+    public long getJobPollIntervalMillis() {
+        return jobPollIntervalMillis;
+    }
+
+    /**
+     * @return the maximum time in milliseconds to wait for a job, 0 means forever.
+     */
+    public long getJobTimeoutMillis() {
+        return jobTimeoutMillis;
+    }
+
+    /**
+     * @return the configuration of the governor limiting the calls against the api.
+     */
+    public GovernorConfiguration getGovernorConfiguration() {
+        return governorConfiguration;
+    }
+
+    /**
+     * @return the configuration of retries and the circuit breaker.
+     */
+    public RetryConfiguration getRetryConfiguration() {
+        return retryConfiguration;
+    }
+
+    /**
+     * @return true if identical concurrent queries share a single call against the api.
+     */
+    public boolean isCoalesceReads() {
+        return coalesceReads;
+    }
+
+    /**
+     * @return the listener receiving the metrics of the client.
+     */
+    public MetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * @return the listener receiving the phases of the SOAP calls.
+     */
+    public SoapPhaseListener getSoapPhaseListener() {
+        return soapPhaseListener;
+    }
+
+    /**
+     * @return the directory the SOAP traffic is recorded to, null if not recorded.
+     */
+    @Nullable public Path getRecordingDirectory() {
+        return recordingDirectory;
+    }
+
+    /**
+     * @return true if listings are parsed from a stream instead of using JAXB.
+     */
+    public boolean isStreamListings() {
+        return streamListings;
+    }
+
+    /**
+     * Builder for the client configuration.
+     *
+     * @see ClientConfiguration
+     */
+    public static class ClientConfigurationBuilder {
+
+        private int poolSize;
+        private long borrowTimeoutMillis;
+        private boolean useBundledWsdl;
+        private TransportConfiguration transportConfiguration;
+        private CatalogCacheConfiguration catalogCacheConfiguration;
+        private long serverStalenessMillis;
+        private long jobPollIntervalMillis;
+        private long jobTimeoutMillis;
+        private GovernorConfiguration governorConfiguration;
+        private RetryConfiguration retryConfiguration;
+        private boolean coalesceReads;
+        private MetricsListener metricsListener;
+        private SoapPhaseListener soapPhaseListener;
+        @Nullable private Path recordingDirectory;
+        private boolean streamListings;
+
+        /**
+         * No-args constructor.
+         * <p>
+         * Initializes the builder with the default values.
+         */
+        public ClientConfigurationBuilder() {
+            this.poolSize = 8;
+            this.borrowTimeoutMillis = 0;
+            this.useBundledWsdl = false;
+            this.transportConfiguration = TransportConfiguration.defaults();
+            this.catalogCacheConfiguration = CatalogCacheConfiguration.disabled();
+            this.serverStalenessMillis = 0;
+            this.jobPollIntervalMillis = 1000;
+            this.jobTimeoutMillis = 0;
+            this.governorConfiguration = GovernorConfiguration.disabled();
+            this.retryConfiguration = RetryConfiguration.defaults();
+            this.coalesceReads = false;
+            this.metricsListener = MetricsListener.NOOP;
+            this.soapPhaseListener = SoapPhaseListener.NOOP;
+            this.streamListings = false;
+        }
+
+        /**
+         * Sets the maximum number of service ports, and therefore the maximum number
+         * of concurrent calls against the api.
+         *
+         * @param poolSize the maximum number of ports.
+         * @return fluent interface
+         */
+        public ClientConfigurationBuilder poolSize(final int poolSize) {
+            this.poolSize = poolSize;
+            return this;
+        }
+
+        /**
+         * Sets how long a caller waits for a free service port before failing.
+         *
+         * @param timeout the timeout, 0 waits forever.
+         * @param unit    the unit of the timeout.
+         * @return fluent interface
+         */
+        public ClientConfigurationBuilder borrowTimeout(final long timeout, final TimeUnit unit) {
+            checkNotNull(unit);
+            this.borrowTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Sets whether the WSDL bundled with the client jar is used.
+         * <p>
+         * The bundled WSDL avoids downloading and parsing the WSDL of the endpoint
+         * for every client. The endpoint has to run the api version the client was built for.
+         *
+         * @param useBundledWsdl true to use the bundled WSDL.
+         * @return fluent interface
+         */
+        public ClientConfigurationBuilder useBundledWsdl(final boolean useBundledWsdl) {
+            this.useBundledWsdl = useBundledWsdl;
+            return this;
+        }
+
+        /**
+         * Sets the configuration of the http transport.
+         *
+         * @param transportConfiguration the transport configuration.
+         * @return fluent interface
+         */
+        public ClientConfigurationBuilder transportConfiguration(
+            final TransportConfiguration transportConfiguration) {
+            this.transportConfiguration = transportConfiguration;
+            return this;
+        }
+
+        /**
+         * Sets the configuration of the catalog cache.
+         *
+         * @param catalogCacheConfiguration the catalog cache configuration.
+         * @return fluent interface
+         */
+        public ClientConfigurationBuilder catalogCacheConfiguration(
+            final CatalogCacheConfiguration catalogCacheConfiguration) {
+            this.catalogCacheConfiguration = catalogCacheConfiguration;
+            return this;
+        }
+
+        /**
+         * Enables the server cache, serving server reads from memory as long
+         * as the cached state is not older than the given staleness.
+         *
+         * @param staleness the maximum age of a cached server state, 0 disables the cache.
+         * @param unit      the unit of the staleness.
+         * @return fluent interface
+         * @see ServerCache
+         */
+        public ClientConfigurationBuilder serverStaleness(final long staleness,
+            final TimeUnit unit) {
+            checkNotNull(unit);
+            this.serverStalenessMillis = unit.toMillis(staleness);
+            return this;
+        }
+
+        /**
+         * Sets the time between two status queries of outstanding jobs.
+         *
+         * @param interval the poll interval.
+         * @param unit     the unit of the interval.
+         * @return fluent interface
+         * @see JobTracker
+         */
+        public ClientConfigurationBuilder jobPollInterval(final long interval,
+            final TimeUnit unit) {
+            checkNotNull(unit);
+            this.jobPollIntervalMillis = unit.toMillis(interval);
+            return this;
+        }
+
+        /**
+         * Sets the maximum time to wait for a job to finish.
+         *
+         * @param timeout the timeout, 0 waits forever.
+         * @param unit    the unit of the timeout.
+         * @return fluent interface
+         */
+        public ClientConfigurationBuilder jobTimeout(final long timeout, final TimeUnit unit) {
+            checkNotNull(unit);
+            this.jobTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Sets the configuration of the governor limiting the rate and concurrency
+         * of calls against the api.
+         *
+         * @param governorConfiguration the governor configuration.
+         * @return fluent interface
+         */
+        public ClientConfigurationBuilder governorConfiguration(
+            final GovernorConfiguration governorConfiguration) {
+            checkNotNull(governorConfiguration);
+            this.governorConfiguration = governorConfiguration;
+            return this;
+        }
+
+        /**
+         * Sets the configuration of retries and the circuit breaker.
+         *
+         * @param retryConfiguration the retry configuration.
+         * @return fluent interface
+         */
+        public ClientConfigurationBuilder retryConfiguration(
+            final RetryConfiguration retryConfiguration) {
+            checkNotNull(retryConfiguration);
+            this.retryConfiguration = retryConfiguration;
+            return this;
+        }
+
+        /**
+         * Sets whether identical concurrent queries share a single call against the api.
+         *
+         * @param coalesceReads true to coalesce queries, disabled by default.
+         * @return fluent interface
+         */
+        public ClientConfigurationBuilder coalesceReads(final boolean coalesceReads) {
+            this.coalesceReads = coalesceReads;
+            return this;
+        }
+
+        /**
+         * Sets the listener receiving the metrics of the client, e.g. an
+         * {@link de.uniulm.omi.cloudiator.flexiant.client.metrics.InMemoryMetrics}.
+         *
+         * @param metricsListener the metrics listener.
+         * @return fluent interface
+         */
+        public ClientConfigurationBuilder metricsListener(final MetricsListener metricsListener) {
+            checkNotNull(metricsListener);
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
+        /**
+         * Sets the listener receiving the marshal, network and unmarshal phases of
+         * every SOAP call. Measuring the phases serializes every message once more, so
+         * it is meant for finding out where the time of slow calls goes. Only while a
+         * listener is set, the flight recorder events of the calls carry the message sizes.
+         *
+         * @param soapPhaseListener the phase listener.
+         * @return fluent interface
+         */
+        public ClientConfigurationBuilder soapPhaseListener(
+            final SoapPhaseListener soapPhaseListener) {
+            checkNotNull(soapPhaseListener);
+            this.soapPhaseListener = soapPhaseListener;
+            return this;
+        }
+
+        /**
+         * Records the request and response envelopes of every SOAP call to the given
+         * directory, for replaying them later without the api.
+         *
+         * @param recordingDirectory the directory to record to.
+         * @return fluent interface
+         * @see de.uniulm.omi.cloudiator.flexiant.client.recording.Recording
+         */
+        public ClientConfigurationBuilder recordTo(final Path recordingDirectory) {
+            checkNotNull(recordingDirectory);
+            this.recordingDirectory = recordingDirectory;
+            return this;
+        }
+
+        /**
+         * Sets whether listings of servers, images, networks, locations and product
+         * offers are parsed from a stream instead of building the complete JAXB object
+         * graph. The resources returned by
+         * {@link io.github.cloudiator.flexiant.extility.UserService#listResources} then
+         * only carry the fields used by the domain classes, so this should only be
+         * enabled if the service is not used directly.
+         *
+         * @param streamListings true to parse listings from a stream.
+         * @return fluent interface
+         */
+        public ClientConfigurationBuilder streamListings(final boolean streamListings) {
+            this.streamListings = streamListings;
+            return this;
+        }
+
+        public ClientConfiguration build() {
+            return new ClientConfiguration(this.poolSize, this.borrowTimeoutMillis,
+                this.useBundledWsdl, this.transportConfiguration, this.catalogCacheConfiguration,
+                this.serverStalenessMillis, this.jobPollIntervalMillis, this.jobTimeoutMillis,
+                this.governorConfiguration, this.retryConfiguration, this.coalesceReads,
+                this.metricsListener, this.soapPhaseListener, this.recordingDirectory,
+                this.streamListings);
+        }
+    }
+}
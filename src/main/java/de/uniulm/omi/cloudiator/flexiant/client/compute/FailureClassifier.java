@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import javax.xml.ws.WebServiceException;
+import javax.xml.ws.http.HTTPException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies failures of calls against the user service.
+ * <p>
+ * A failure is transient if repeating the call later may succeed, e.g. a broken
+ * connection, an overloaded server or a throttled call. All other failures, e.g.
+ * faults for invalid arguments or missing resources, are permanent.
+ * <p>
+ * If the failure carries the HTTP status of the response, the status alone decides.
+ * The reference implementation reports it either as {@link HTTPException} or only in
+ * the message of its transport exception, which is parsed as a fallback. The message
+ * of a failure is only searched for throttling hints if no status is known.
+ */
+final class FailureClassifier {
+
+    private static final String[] THROTTLING_MESSAGES =
+        {"throttl", "rate limit", "too many", "limit exceeded"};
+
+    private static final Pattern HTTP_STATUS = Pattern.compile("status code (\\d{3})");
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private FailureClassifier() {
+        throw new AssertionError("Do not instantiate");
+    }
+
+    /**
+     * Checks whether the given failure is transient.
+     *
+     * @param t the failure of a call.
+     * @return true if the call may succeed when repeated.
+     */
+    static boolean isTransient(final Throwable t) {
+        if (t instanceof CircuitBreaker.OpenException) {
+            return false;
+        }
+        final int status = httpStatus(t);
+        if (status != -1) {
+            return status == TOO_MANY_REQUESTS || status == 502 || status == 503
+                || status == 504;
+        }
+        return isThrottled(t) || t instanceof WebServiceException && hasCause(t,
+            IOException.class);
+    }
+
+    /**
+     * Checks whether the given failure happened before the request was sent to the
+     * server, so that even non idempotent calls can safely be repeated.
+     *
+     * @param t the failure of a call.
+     * @return true if the server never received the request.
+     */
+    static boolean isBeforeSend(final Throwable t) {
+        return t instanceof WebServiceException && (hasCause(t, ConnectException.class)
+            || hasCause(t, UnknownHostException.class) || hasCause(t,
+            NoRouteToHostException.class));
+    }
+
+    /**
+     * Checks whether the server rejected the call due to throttling.
+     *
+     * @param t the failure of a call.
+     * @return true if the call was throttled.
+     */
+    static boolean isThrottled(final Throwable t) {
+        final int status = httpStatus(t);
+        if (status != -1) {
+            return status == TOO_MANY_REQUESTS;
+        }
+        final String message = t.getMessage();
+        if (message == null) {
+            return false;
+        }
+        final String lowerCase = message.toLowerCase(Locale.ROOT);
+        for (String throttlingMessage : THROTTLING_MESSAGES) {
+            if (lowerCase.contains(throttlingMessage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extracts the HTTP status of the response that caused the given failure.
+     *
+     * @param t the failure of a call.
+     * @return the status code, or -1 if the failure carries none.
+     */
+    static int httpStatus(final Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HTTPException) {
+                return ((HTTPException) cause).getStatusCode();
+            }
+            if (cause instanceof WebServiceException && cause.getMessage() != null) {
+                final Matcher matcher = HTTP_STATUS.matcher(cause.getMessage());
+                if (matcher.find()) {
+                    return Integer.parseInt(matcher.group(1));
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean hasCause(final Throwable t, final Class<? extends Throwable> type) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
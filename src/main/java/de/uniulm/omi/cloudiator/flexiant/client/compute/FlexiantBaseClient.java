@@ -19,13 +19,23 @@
 package de.uniulm.omi.cloudiator.flexiant.client.compute;
 
 
+import de.uniulm.omi.cloudiator.flexiant.client.metrics.MetricsListener;
+import de.uniulm.omi.cloudiator.flexiant.client.metrics.SoapPhaseListener;
+import de.uniulm.omi.cloudiator.flexiant.client.recording.RecordingHandler;
 import io.github.cloudiator.flexiant.extility.UserAPI;
 import io.github.cloudiator.flexiant.extility.UserService;
 
-import javax.xml.namespace.QName;
+import javax.annotation.Nullable;
+import javax.xml.transform.Source;
 import javax.xml.ws.BindingProvider;
+import javax.xml.ws.Dispatch;
+import javax.xml.ws.Service;
+import javax.xml.ws.handler.Handler;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.List;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -36,8 +46,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 public class FlexiantBaseClient {
 
-    private UserService service;
-    private String customerUUID;
+    private final UserServicePool servicePool;
+    private final UserService service;
+    private final String customerUUID;
+    private final ClientConfiguration configuration;
 
     /**
      * Constructor for the class.
@@ -50,55 +62,231 @@ public class FlexiantBaseClient {
      * @param password    Password for authentication
      */
     public FlexiantBaseClient(String endpoint, String apiUserName, String password) {
+        this(endpoint, apiUserName, password, ClientConfiguration.defaults());
+    }
+
+    /**
+     * Constructor for the class.
+     * <p/>
+     * Creates a connection to the server at the given endpoint using
+     * the apiUserName and password for auth.
+     *
+     * @param endpoint      URL for the flexiant api
+     * @param apiUserName   User for authentication
+     * @param password      Password for authentication
+     * @param configuration configuration of the client
+     */
+    public FlexiantBaseClient(String endpoint, String apiUserName, String password,
+        ClientConfiguration configuration) {
+        this(endpoint, apiUserName, configuration,
+            portFactory(endpoint, apiUserName, password, configuration));
+    }
+
+    /**
+     * Constructor for the class, creating the ports with the given factory.
+     * <p/>
+     * Allows tests to run the client against a stub service.
+     *
+     * @param endpoint      URL for the flexiant api
+     * @param apiUserName   User for authentication
+     * @param configuration configuration of the client
+     * @param portFactory   creates the ports of the service pool
+     */
+    FlexiantBaseClient(String endpoint, String apiUserName, ClientConfiguration configuration,
+        Supplier<UserService> portFactory) {
+
+        checkNotNull(endpoint);
+        checkNotNull(apiUserName);
+        checkNotNull(configuration);
+        checkNotNull(portFactory);
+
+        this.customerUUID = apiUserName.split("/")[0];
+        this.configuration = configuration;
+
+        // the ports are not thread safe, so every caller borrows its own one, the flight
+        // recorder reports every single call on a port, including retries but not the wait
+        this.servicePool =
+            new UserServicePool(() -> FlightRecorderSupport.recording(portFactory.get()),
+                configuration.getPoolSize(), configuration.getBorrowTimeoutMillis());
+
+        // create the first port eagerly, to fail fast on a wrong configuration
+        this.servicePool.release(this.servicePool.borrow());
+
+        UserService service = this.servicePool.getService();
+        if (configuration.getMetricsListener() != MetricsListener.NOOP) {
+            service = new CallMeter(configuration.getMetricsListener()).metered(service);
+        }
+
+        // queue calls on the client instead of overloading the api, at most one per port
+        if (configuration.getGovernorConfiguration().isEnabled()) {
+            service = new CallGovernor(configuration.getGovernorConfiguration(),
+                configuration.getPoolSize()).govern(service);
+        }
+
+        // retry transient failures, every attempt passes the governor again
+        final RetryConfiguration retryConfiguration = configuration.getRetryConfiguration();
+        final CircuitBreaker circuitBreaker = retryConfiguration.getFailureThreshold() > 0 ?
+            new CircuitBreaker(endpoint, retryConfiguration.getFailureThreshold(),
+                retryConfiguration.getOpenDurationMillis()) : null;
+        if (retryConfiguration.getMaxAttempts() > 1 || circuitBreaker != null) {
+            service = new CallRetrier(retryConfiguration, circuitBreaker).retrying(service);
+        }
+
+        // identical concurrent queries share one call, including its retries
+        if (configuration.isCoalesceReads()) {
+            service = new CallCoalescer().coalescing(service);
+        }
+        this.service = service;
+    }
+
+    private static Supplier<UserService> portFactory(String endpoint, String apiUserName,
+        String password, ClientConfiguration configuration) {
 
         checkNotNull(endpoint);
         checkNotNull(apiUserName);
         checkNotNull(password);
+        checkNotNull(configuration);
         checkArgument(!endpoint.isEmpty());
         checkArgument(!apiUserName.isEmpty());
         checkArgument(!password.isEmpty());
 
-        this.customerUUID = apiUserName.split("/")[0];
-
         // disable sni name checking
         //System.setProperty("jsse.enableSNIExtension", "false");
 
-        // Get the service WSDL from the client jar
-        URL url;
-        try {
-            url = new URL(endpoint + "/?wsdl");
-        } catch (MalformedURLException e) {
-            throw new IllegalArgumentException(String
-                .format("The WSDL Url %s is malformed. Check your endpoint.", endpoint + "/?wsdl"),
-                e);
+        // Get the UserAPI, either from the WSDL bundled with the client jar
+        // or from the endpoint
+        final UserAPI api;
+        if (configuration.isUseBundledWsdl()) {
+            api = UserAPIProvider.bundled();
+        } else {
+            URL url;
+            try {
+                url = new URL(endpoint + "/?wsdl");
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException(String
+                    .format("The WSDL Url %s is malformed. Check your endpoint.",
+                        endpoint + "/?wsdl"), e);
+            }
+            api = UserAPIProvider.forWsdl(url);
+        }
+
+        final TransportConfiguration transportConfiguration =
+            configuration.getTransportConfiguration();
+
+        final SoapPhaseListener soapPhaseListener = configuration.getSoapPhaseListener();
+
+        // one recording shared by all ports
+        final RecordingHandler recordingHandler;
+        if (configuration.getRecordingDirectory() != null) {
+            try {
+                recordingHandler = new RecordingHandler(configuration.getRecordingDirectory());
+            } catch (IOException e) {
+                throw new IllegalArgumentException(String
+                    .format("Could not record to %s.", configuration.getRecordingDirectory()),
+                    e);
+            }
+        } else {
+            recordingHandler = null;
         }
 
-        // Get the UserAPI
-        UserAPI api = new UserAPI(url, new QName("http://extility.flexiant.net", "UserAPI"));
+        return () -> FlexiantBaseClient
+            .createPort(api, endpoint, apiUserName, password, transportConfiguration,
+                soapPhaseListener, recordingHandler, configuration.isStreamListings());
+    }
 
-        // and set the service port on the service
-        service = api.getUserServicePort();
+    private static UserService createPort(UserAPI api, String endpoint, String apiUserName,
+        String password, TransportConfiguration transportConfiguration,
+        SoapPhaseListener soapPhaseListener, @Nullable RecordingHandler recordingHandler,
+        boolean streamListings) {
+
+        // get the service port
+        UserService port = api.getUserServicePort();
+        final boolean recordPhases = soapPhaseListener != SoapPhaseListener.NOOP;
+        configure((BindingProvider) port, endpoint, apiUserName, password,
+            transportConfiguration, recordingHandler, recordPhases);
+
+        // parse listings from a stream, on a dispatch configured like the port
+        if (streamListings) {
+            final Dispatch<Source> dispatch =
+                api.createDispatch(UserAPIProvider.PORT_NAME, Source.class, Service.Mode.PAYLOAD);
+            configure(dispatch, endpoint, apiUserName, password, transportConfiguration,
+                recordingHandler, recordPhases);
+            port = new StreamingLister(dispatch).streaming(port);
+        }
+
+        if (recordPhases) {
+            return new SoapPhaseRecorder(soapPhaseListener).recording(port);
+        }
+
+        return port;
+    }
 
-        // Get the binding provider
-        BindingProvider portBP = (BindingProvider) service;
+    private static void configure(BindingProvider portBP, String endpoint, String apiUserName,
+        String password, TransportConfiguration transportConfiguration,
+        @Nullable RecordingHandler recordingHandler, boolean recordPhases) {
 
-        // and set the service endpoint
+        // set the service endpoint
         portBP.getRequestContext().put(BindingProvider.ENDPOINT_ADDRESS_PROPERTY, endpoint);
 
         // and the caller's authentication details and password
         portBP.getRequestContext().put(BindingProvider.USERNAME_PROPERTY, apiUserName);
         portBP.getRequestContext().put(BindingProvider.PASSWORD_PROPERTY, password);
+
+        // timeouts and compression
+        transportConfiguration.applyTo(portBP);
+
+        // write the envelopes of every call to the recording
+        if (recordingHandler != null) {
+            @SuppressWarnings("rawtypes") final List<Handler> handlerChain =
+                portBP.getBinding().getHandlerChain();
+            handlerChain.add(recordingHandler);
+            portBP.getBinding().setHandlerChain(handlerChain);
+        }
+
+        // message timings for the phase listener, the handler materializes every message
+        if (recordPhases) {
+            MessageTimingHandler.install(portBP);
+        }
     }
 
     /**
      * Returns the user service for calling operations on the webservice.
+     * <p>
+     * The returned service is thread safe, every operation is executed on a
+     * port borrowed from the service pool. If configured, the calls are governed
+     * by a rate and concurrency limit, transient failures are retried and identical
+     * concurrent queries are coalesced.
+     * <p>
+     * The service is a proxy and no {@link BindingProvider}, the request context
+     * of the ports is configured with the {@link ClientConfiguration}.
      *
      * @return The service for calling operations on the webservice.
+     * @see GovernorConfiguration
+     * @see RetryConfiguration
      */
     public UserService getService() {
         return this.service;
     }
 
+    /**
+     * Returns the pool of service ports, for callers which want to execute
+     * multiple operations on the same port.
+     *
+     * @return the service pool.
+     */
+    public UserServicePool getServicePool() {
+        return this.servicePool;
+    }
+
+    /**
+     * Returns the configuration of this client.
+     *
+     * @return the configuration.
+     */
+    public ClientConfiguration getConfiguration() {
+        return this.configuration;
+    }
+
     /**
      * Returns the customer uuid of the authenticated user.
      *
@@ -18,6 +18,11 @@
 
 package de.uniulm.omi.cloudiator.flexiant.client.compute;
 
+import com.google.common.cache.Cache;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import de.uniulm.omi.cloudiator.flexiant.client.api.FlexiantException;
 import de.uniulm.omi.cloudiator.flexiant.client.domain.Hardware;
 import de.uniulm.omi.cloudiator.flexiant.client.domain.Location;
@@ -25,26 +30,124 @@ import de.uniulm.omi.cloudiator.flexiant.client.domain.ServerTemplate;
 import io.github.cloudiator.flexiant.extility.*;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.google.common.base.Preconditions.*;
 
 /**
  * Client for calling compute operations on flexiants extility api.
+ * <p>
+ * The client tracks jobs and runs follow-up steps in the background. Close it once
+ * it is no longer needed, to stop the background threads.
  */
-public class FlexiantComputeClient {
+public class FlexiantComputeClient implements AutoCloseable {
+
+    /**
+     * Maximum number of uuids queried with a single filter condition.
+     */
+    private static final int BULK_CHUNK_SIZE = 100;
+
+    /**
+     * Default number of concurrent job submissions of bulk operations.
+     */
+    private static final int DEFAULT_CONCURRENCY = 10;
+
+    /**
+     * Time the default network of a vdc is cached.
+     */
+    private static final long DEFAULT_NETWORK_TTL_MINUTES = 10;
+
+    /**
+     * Submits a job for the item with the given uuid.
+     */
+    @FunctionalInterface private interface JobSubmission {
+        Job submit(String uuid) throws FlexiantException;
+    }
 
     private final FlexiantBaseClient flexiantBaseClient;
+    private final CatalogCache catalogCache;
+    private final ServerCache serverCache;
+    private final JobTracker jobTracker;
+    private final ExecutorService pipelineExecutor;
+    private final ThreadPoolExecutor submissionExecutor;
+    private final Cache<String, String> defaultNetworks;
 
     /**
      * @see FlexiantComputeClient#FlexiantComputeClient(String, String, String)
      */
     public FlexiantComputeClient(final String endpoint, final String apiUserName,
         final String password) {
-        flexiantBaseClient = new FlexiantBaseClient(endpoint, apiUserName, password);
+        this(endpoint, apiUserName, password, ClientConfiguration.defaults());
+    }
+
+    /**
+     * @see FlexiantBaseClient#FlexiantBaseClient(String, String, String, ClientConfiguration)
+     */
+    public FlexiantComputeClient(final String endpoint, final String apiUserName,
+        final String password, final ClientConfiguration configuration) {
+        this(new FlexiantBaseClient(endpoint, apiUserName, password, configuration));
+    }
+
+    /**
+     * Creates a compute client on top of the given base client.
+     *
+     * @param flexiantBaseClient the base client.
+     */
+    FlexiantComputeClient(final FlexiantBaseClient flexiantBaseClient) {
+        checkNotNull(flexiantBaseClient);
+        final ClientConfiguration configuration = flexiantBaseClient.getConfiguration();
+        this.flexiantBaseClient = flexiantBaseClient;
+        catalogCache = new CatalogCache(configuration.getCatalogCacheConfiguration());
+        serverCache = new ServerCache(configuration.getServerStalenessMillis());
+        jobTracker = new JobTracker(flexiantBaseClient.getService(),
+            configuration.getJobPollIntervalMillis(), configuration.getJobTimeoutMillis(),
+            configuration.getMetricsListener());
+        pipelineExecutor = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("flexiant-pipeline-%d").setDaemon(true)
+                .build());
+        // shared by all bulk operations, more threads than ports would only wait for a port
+        submissionExecutor = new ThreadPoolExecutor(configuration.getPoolSize(),
+            configuration.getPoolSize(), 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("flexiant-submission-%d").setDaemon(true)
+                .build());
+        submissionExecutor.allowCoreThreadTimeOut(true);
+        defaultNetworks = CacheBuilder.newBuilder()
+            .expireAfterWrite(DEFAULT_NETWORK_TTL_MINUTES, TimeUnit.MINUTES).build();
+    }
+
+    /**
+     * Stops tracking jobs and shuts down the background threads of the client.
+     * <p>
+     * Outstanding jobs are no longer tracked, their futures are failed. The jobs
+     * themselves are not cancelled.
+     */
+    @Override public void close() {
+        jobTracker.close();
+        pipelineExecutor.shutdown();
+        submissionExecutor.shutdown();
     }
 
     /**
@@ -61,6 +164,35 @@ public class FlexiantComputeClient {
         return flexiantBaseClient.getCustomerUUID();
     }
 
+    /**
+     * Returns the cache of the catalog resources, e.g. for invalidating it or
+     * reading its statistics.
+     *
+     * @return the catalog cache.
+     */
+    public CatalogCache getCatalogCache() {
+        return catalogCache;
+    }
+
+    /**
+     * Returns the cache of the server states, e.g. for invalidating it or
+     * reading its statistics.
+     *
+     * @return the server cache.
+     */
+    public ServerCache getServerCache() {
+        return serverCache;
+    }
+
+    /**
+     * Returns the tracker waiting for the execution of jobs.
+     *
+     * @return the job tracker.
+     */
+    public JobTracker getJobTracker() {
+        return jobTracker;
+    }
+
     /**
      * Returns all servers whose names are matching the given prefix.
      *
@@ -86,6 +218,11 @@ public class FlexiantComputeClient {
      * @throws FlexiantException
      */
     public Set<de.uniulm.omi.cloudiator.flexiant.client.domain.Server> getServers(
+        @Nullable final String locationUUID) throws FlexiantException {
+        return serverCache.getServers(locationUUID, () -> this.loadServers(locationUUID));
+    }
+
+    private Set<de.uniulm.omi.cloudiator.flexiant.client.domain.Server> loadServers(
         @Nullable final String locationUUID) throws FlexiantException {
         return this.getResources(ResourceType.SERVER, Server.class, locationUUID).stream()
             .map(de.uniulm.omi.cloudiator.flexiant.client.domain.Server::new)
@@ -113,13 +250,22 @@ public class FlexiantComputeClient {
      * @throws FlexiantException
      */
     public Set<Location> getLocations() throws FlexiantException {
-        Set<Location> locations = new HashSet<Location>();
+
+        // one call for all clusters and one for all vdcs, joined in memory
+        final Map<String, Location> clusters = new HashMap<>();
+        for (Cluster cluster : this.getResources(ResourceType.CLUSTER, Cluster.class, null)) {
+            clusters.put(cluster.getResourceUUID(), Location.from(cluster));
+        }
+
+        Set<Location> locations = new HashSet<Location>(clusters.values());
         for (Vdc vdc : this.getResources(ResourceType.VDC, Vdc.class, null)) {
-            locations.add(Location.from(vdc,
-                this.getResource((vdc).getClusterUUID(), ResourceType.CLUSTER, Cluster.class)));
+            final Location cluster = clusters.get(vdc.getClusterUUID());
+            checkState(cluster != null, String.format(
+                "Error while retrieving cluster of vdc %s. VDC is in cluster %s, but this cluster "
+                    + "does not exist. Looks like the vdc is corrupted.", vdc.getResourceUUID(),
+                vdc.getClusterUUID()));
+            locations.add(Location.from(vdc, cluster));
         }
-        locations.addAll(this.getResources(ResourceType.CLUSTER, Cluster.class, null).stream()
-            .map(Location::from).collect(Collectors.toList()));
         return locations;
     }
 
@@ -153,11 +299,58 @@ public class FlexiantComputeClient {
             .collect(Collectors.toSet());
     }
 
+    /**
+     * Returns a lazily loaded stream of all servers.
+     * <p>
+     * The servers are requested page by page while the stream is consumed, so at most
+     * one page is held in memory. Errors while loading a page are thrown as
+     * {@link de.uniulm.omi.cloudiator.flexiant.client.api.UncheckedFlexiantException}.
+     *
+     * @param locationUUID optional location of the server, if null it will be ignored.
+     * @param pageSize     the number of servers requested per call.
+     * @return a stream of all servers.
+     */
+    public Stream<de.uniulm.omi.cloudiator.flexiant.client.domain.Server> streamServers(
+        @Nullable final String locationUUID, final int pageSize) {
+        return this.streamResources(ResourceType.SERVER, Server.class, locationUUID, pageSize)
+            .map(de.uniulm.omi.cloudiator.flexiant.client.domain.Server::new);
+    }
+
+    /**
+     * Returns a lazily loaded stream of all images.
+     *
+     * @param locationUUID optional location of the image, if null it will be ignored.
+     * @param pageSize     the number of images requested per call.
+     * @return a stream of all images.
+     * @see FlexiantComputeClient#streamServers(String, int)
+     */
+    public Stream<de.uniulm.omi.cloudiator.flexiant.client.domain.Image> streamImages(
+        @Nullable final String locationUUID, final int pageSize) {
+        return this.streamResources(ResourceType.IMAGE, Image.class, locationUUID, pageSize)
+            .map(de.uniulm.omi.cloudiator.flexiant.client.domain.Image::new);
+    }
+
+    /**
+     * Returns a lazily loaded stream of all networks.
+     *
+     * @param locationUUID optional location of the network, if null it will be ignored.
+     * @param pageSize     the number of networks requested per call.
+     * @return a stream of all networks.
+     * @see FlexiantComputeClient#streamServers(String, int)
+     */
+    public Stream<de.uniulm.omi.cloudiator.flexiant.client.domain.Network> streamNetworks(
+        @Nullable final String locationUUID, final int pageSize) {
+        return this.streamResources(ResourceType.NETWORK, Network.class, locationUUID, pageSize)
+            .map(de.uniulm.omi.cloudiator.flexiant.client.domain.Network::new);
+    }
+
     /**
      * Retrieves the server having the given ip.
      * <p>
      * It seems that flexiant does not allow to query by ip. Therefore, this
-     * query loops through all servers, finding the ip.
+     * query lists all servers. If the server cache is enabled, the lookup uses an
+     * index over the ips kept together with the cached servers, otherwise the fresh
+     * list of servers is searched linearly, as the index would be used only once.
      *
      * @param ip           the ip of the server.
      * @param locationUUID optional location of the server, if null it will be ignored.
@@ -166,7 +359,13 @@ public class FlexiantComputeClient {
      */
     @Nullable public de.uniulm.omi.cloudiator.flexiant.client.domain.Server getServerByIp(String ip,
         @Nullable String locationUUID) throws FlexiantException {
-        return this.searchByIp(this.getServers(locationUUID), ip);
+        checkNotNull(ip);
+        checkArgument(!ip.isEmpty());
+        if (!serverCache.isEnabled()) {
+            return this.searchByIp(this.loadServers(locationUUID), ip);
+        }
+        return serverCache.getInventory(locationUUID, () -> this.loadServers(locationUUID))
+            .getServerByIp(ip);
     }
 
     /**
@@ -183,6 +382,8 @@ public class FlexiantComputeClient {
      */
     @Nullable public de.uniulm.omi.cloudiator.flexiant.client.domain.Server getServerByIp(String ip,
         String filter, @Nullable String locationUUID) throws FlexiantException {
+        checkNotNull(ip);
+        checkArgument(!ip.isEmpty());
         return this.searchByIp(this.getServers(filter, locationUUID), ip);
     }
 
@@ -196,10 +397,10 @@ public class FlexiantComputeClient {
     @Nullable protected de.uniulm.omi.cloudiator.flexiant.client.domain.Server searchByIp(
         Set<de.uniulm.omi.cloudiator.flexiant.client.domain.Server> servers, String ip) {
         for (de.uniulm.omi.cloudiator.flexiant.client.domain.Server server : servers) {
-            if (server.getPublicIpAddress() != null && server.getPublicIpAddress().equals(ip)) {
+            if (ip.equals(server.getPublicIpAddress())) {
                 return server;
             }
-            if (server.getPrivateIpAddress() != null && server.getPrivateIpAddress().equals(ip)) {
+            if (ip.equals(server.getPrivateIpAddress())) {
                 return server;
             }
         }
@@ -218,6 +419,136 @@ public class FlexiantComputeClient {
 
         checkNotNull(serverTemplate);
 
+        return this.provisionServer(serverTemplate).awaitRunning();
+    }
+
+    /**
+     * Submits the creation of a server with the given properties and returns
+     * without waiting for it.
+     * <p>
+     * Once created, the server is started in the background. The returned handle
+     * provides the uuid of the server right away, and allows to wait until the
+     * server is running.
+     *
+     * @param serverTemplate A template describing the server which should be started.
+     * @return the handle of the server.
+     * @throws FlexiantException if the creation could not be submitted.
+     */
+    public ProvisioningHandle provisionServer(final ServerTemplate serverTemplate)
+        throws FlexiantException {
+
+        checkNotNull(serverTemplate);
+
+        return this.provisionServer(serverTemplate, pipelineExecutor);
+    }
+
+    /**
+     * Submits the creation of a server, and starts it on the given executor once created.
+     *
+     * @param serverTemplate A template describing the server which should be started.
+     * @param startExecutor  the executor submitting the start of the server.
+     * @return the handle of the server.
+     * @throws FlexiantException if the creation could not be submitted.
+     */
+    private ProvisioningHandle provisionServer(final ServerTemplate serverTemplate,
+        final Executor startExecutor) throws FlexiantException {
+
+        final Job createJob = this.submitCreateServer(serverTemplate);
+        final String serverUUID = createJob.getItemUUID();
+        final CompletableFuture<String> running = jobTracker.track(createJob)
+            .thenComposeAsync(job -> call(
+                () -> this.submitChangeServerStatus(itemOf(job, serverUUID),
+                    ServerStatus.RUNNING)), startExecutor).thenCompose(jobTracker::track)
+            .thenApply(job -> {
+                serverCache.invalidate(serverUUID);
+                return serverUUID;
+            });
+        return new ProvisioningHandle(this, createJob, running);
+    }
+
+    /**
+     * Creates and starts servers for all given templates.
+     * <p>
+     * The creation jobs of all servers are submitted up front, at most the given
+     * number of submissions run concurrently. The servers are started as soon as their
+     * creation finished, sharing the same limit of concurrent submissions, and are
+     * queried afterwards using a single bulk lookup.
+     * A failure of one server does not affect the others.
+     *
+     * @param serverTemplates templates describing the servers which should be started.
+     * @param concurrency     the maximum number of concurrent calls submitting jobs,
+     *                        limited by the pool size of the client.
+     * @return the results in the order of the templates, either the created server or
+     * the exception causing its creation to fail.
+     */
+    public List<OperationResult<de.uniulm.omi.cloudiator.flexiant.client.domain.Server>>
+    createServers(final List<ServerTemplate> serverTemplates, final int concurrency) {
+
+        checkNotNull(serverTemplates);
+        checkArgument(concurrency > 0, "Concurrency must be positive.");
+        // check up front, so that nothing is submitted for invalid arguments
+        serverTemplates.forEach(Preconditions::checkNotNull);
+
+        final Executor executor = new BoundedExecutor(submissionExecutor, concurrency);
+        final List<CompletableFuture<String>> running = new ArrayList<>();
+        for (ServerTemplate serverTemplate : serverTemplates) {
+            running.add(CompletableFuture.completedFuture(serverTemplate)
+                .thenComposeAsync(t -> call(() -> this.provisionServer(t, executor)),
+                    executor)
+                .thenCompose(ProvisioningHandle::running));
+        }
+        CompletableFuture.allOf(running.toArray(new CompletableFuture[running.size()]))
+            .exceptionally(t -> null).join();
+
+        final List<String> serverUUIDs =
+            running.stream().filter(f -> !f.isCompletedExceptionally())
+                .map(CompletableFuture::join).collect(Collectors.toList());
+        Map<String, de.uniulm.omi.cloudiator.flexiant.client.domain.Server> servers;
+        FlexiantException queryException = null;
+        try {
+            servers = this.getServersByUUID(serverUUIDs);
+        } catch (FlexiantException e) {
+            servers = Collections.emptyMap();
+            queryException = e;
+        }
+
+        final List<OperationResult<de.uniulm.omi.cloudiator.flexiant.client.domain.Server>>
+            results = new ArrayList<>(running.size());
+        for (CompletableFuture<String> future : running) {
+            if (future.isCompletedExceptionally()) {
+                results.add(OperationResult.failure(future.handle((v, t) -> t).join()));
+                continue;
+            }
+            final String serverUUID = future.join();
+            final de.uniulm.omi.cloudiator.flexiant.client.domain.Server server =
+                servers.get(serverUUID);
+            if (server != null) {
+                serverCache.update(server);
+                results.add(OperationResult.success(server));
+            } else {
+                serverCache.invalidate(serverUUID);
+                results.add(OperationResult.failure(queryException != null ?
+                    queryException :
+                    new FlexiantException(String.format(
+                        "Server %s was created and started, but could not be queried.",
+                        serverUUID))));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Submits the job creating a server with the given properties.
+     *
+     * @param serverTemplate A template describing the server which should be created.
+     * @return the submitted job.
+     * @throws FlexiantException
+     */
+    protected Job submitCreateServer(final ServerTemplate serverTemplate)
+        throws FlexiantException {
+
+        checkNotNull(serverTemplate);
+
         io.github.cloudiator.flexiant.extility.Server server =
             new io.github.cloudiator.flexiant.extility.Server();
         server.setResourceName(serverTemplate.getServerName());
@@ -234,11 +565,7 @@ public class FlexiantComputeClient {
         final Set<String> networks = new HashSet<String>();
         if (serverTemplate.getTemplateOptions().getNetworks().isEmpty()) {
             //no network configured, find it out by ourselves.
-            if (this.getNetworks(serverTemplate.getVdc()).size() == 1) {
-                networks.add(this.getNetworks(serverTemplate.getVdc()).iterator().next().getId());
-            } else {
-                throw new FlexiantException("Could not uniquely identify network.");
-            }
+            networks.add(this.getDefaultNetwork(serverTemplate.getVdc()));
         } else {
             networks.addAll(serverTemplate.getTemplateOptions().getNetworks());
         }
@@ -251,32 +578,70 @@ public class FlexiantComputeClient {
         }
 
         try {
-            Job serverJob = this.getService().createServer(server, null, null, null);
-            this.waitForJob(serverJob);
-            final de.uniulm.omi.cloudiator.flexiant.client.domain.Server createdServer =
-                this.getServer(serverJob.getItemUUID());
-            checkState(createdServer != null, String.format(
-                "Execution of job %s for server %s was returned as successful, but the server could not be queried.",
-                serverJob.getResourceUUID(), serverJob.getItemUUID()));
-            this.startServer(createdServer);
-            return createdServer;
+            return this.getService().createServer(server, null, null, null);
         } catch (ExtilityException e) {
             throw new FlexiantException("Could not create server", e);
         }
     }
 
-    private void waitForJob(Job job) throws FlexiantException {
+    /**
+     * Returns the network of the given vdc, if the vdc has exactly one network.
+     * <p>
+     * The resolved network is cached per vdc.
+     *
+     * @param vdcUUID the uuid of the vdc.
+     * @return the uuid of the network.
+     * @throws FlexiantException if the vdc does not have exactly one network.
+     */
+    private String getDefaultNetwork(final String vdcUUID) throws FlexiantException {
+        final String cached = defaultNetworks.getIfPresent(vdcUUID);
+        if (cached != null) {
+            return cached;
+        }
+        final Set<de.uniulm.omi.cloudiator.flexiant.client.domain.Network> vdcNetworks =
+            this.getNetworks(vdcUUID);
+        if (vdcNetworks.size() != 1) {
+            throw new FlexiantException("Could not uniquely identify network.");
+        }
+        final String network = vdcNetworks.iterator().next().getId();
+        defaultNetworks.put(vdcUUID, network);
+        return network;
+    }
+
+    /**
+     * Waits for the execution of the given job using the job tracker.
+     *
+     * @param job the job to wait for.
+     * @return the finished job.
+     * @throws FlexiantException if the job was not successful.
+     */
+    private Job waitForJob(Job job) throws FlexiantException {
+        return await(jobTracker.track(job), job);
+    }
+
+    /**
+     * Waits for the given future of a job.
+     *
+     * @param future the future of the job.
+     * @param job    the job, used for error reporting.
+     * @return the finished job.
+     * @throws FlexiantException if the job was not successful or the thread was interrupted.
+     */
+    private static Job await(CompletableFuture<Job> future, Job job) throws FlexiantException {
         try {
-            Job waitForJob = this.getService().waitForJob(job.getResourceUUID(), true);
-            if (!waitForJob.getStatus().equals(JobStatus.SUCCESSFUL)) {
-                throw new FlexiantException(String.format(
-                    "Problem during execution of job %s for item %s. Successfully waited for execution of job, but execution was not successful. Job is in status %s.",
-                    job.getResourceUUID(), job.getItemUUID(), job.getStatus()));
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlexiantException(String
+                .format("Interrupted while waiting for job %s for item %s.",
+                    job.getResourceUUID(), job.getItemUUID()), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof FlexiantException) {
+                throw (FlexiantException) e.getCause();
             }
-        } catch (ExtilityException e) {
             throw new FlexiantException(String
                 .format("Error during execution of job %s for item %s. Job failed with exception.",
-                    job.getResourceUUID(), job.getItemUUID()), e);
+                    job.getResourceUUID(), job.getItemUUID()), e.getCause());
         }
     }
 
@@ -360,12 +725,175 @@ public class FlexiantComputeClient {
      * @throws FlexiantException if the resource can not be deleted.
      */
     protected void deleteResource(final String uuid) throws FlexiantException {
+        final Job job = this.submitDeleteResource(uuid);
+        serverCache.invalidate(itemOf(this.waitForJob(job), uuid));
+    }
+
+    /**
+     * Submits the job deleting a resource, without waiting for the job.
+     *
+     * @param uuid of the resource.
+     * @return a future completed once the job finished.
+     * @throws FlexiantException if the job could not be submitted.
+     */
+    CompletableFuture<Void> trackDeleteResource(final String uuid) throws FlexiantException {
+        return this.track(this.submitDeleteResource(uuid), uuid);
+    }
+
+    /**
+     * Submits the job deleting a resource (and all related entities) identified by the
+     * given uuid.
+     *
+     * @param uuid of the resource.
+     * @return the submitted job.
+     * @throws FlexiantException if the resource can not be deleted.
+     */
+    protected Job submitDeleteResource(final String uuid) throws FlexiantException {
         try {
-            final Job job = this.getService().deleteResource(uuid, true, null);
-            this.waitForJob(job);
+            return this.getService().deleteResource(uuid, true, null);
         } catch (ExtilityException e) {
-            throw new FlexiantException("Could not delete resource", e);
+            throw new FlexiantException(String.format("Could not delete resource %s", uuid), e);
+        }
+    }
+
+    /**
+     * Starts the given servers.
+     *
+     * @param serverUUIDs the uuids of the servers.
+     * @return the outcome per server uuid.
+     * @see FlexiantComputeClient#changeServerStatus(Collection, ServerStatus, int)
+     */
+    public Map<String, OperationResult<Void>> startServers(final Collection<String> serverUUIDs) {
+        return this.changeServerStatus(serverUUIDs, ServerStatus.RUNNING, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Stops the given servers.
+     *
+     * @param serverUUIDs the uuids of the servers.
+     * @return the outcome per server uuid.
+     * @see FlexiantComputeClient#changeServerStatus(Collection, ServerStatus, int)
+     */
+    public Map<String, OperationResult<Void>> stopServers(final Collection<String> serverUUIDs) {
+        return this.changeServerStatus(serverUUIDs, ServerStatus.STOPPED, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Changes the status of all servers whose names are matching the given prefix.
+     *
+     * @param prefix       the prefix the server names should match.
+     * @param locationUUID optional location of the servers, if null it will be ignored.
+     * @param status       the status the servers should change to.
+     * @return the outcome per server uuid.
+     * @throws FlexiantException if the servers could not be listed.
+     * @see FlexiantComputeClient#getServers(String, String)
+     */
+    public Map<String, OperationResult<Void>> changeServerStatus(final String prefix,
+        @Nullable final String locationUUID, final ServerStatus status) throws FlexiantException {
+        return this.changeServerStatus(this.getServers(prefix, locationUUID).stream()
+            .map(de.uniulm.omi.cloudiator.flexiant.client.domain.Server::getId)
+            .collect(Collectors.toList()), status, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Changes the status of the given servers.
+     * <p>
+     * The jobs of all servers are submitted concurrently and tracked together.
+     * A failure for one server does not affect the others.
+     *
+     * @param serverUUIDs the uuids of the servers.
+     * @param status      the status the servers should change to.
+     * @param concurrency the maximum number of concurrent calls submitting jobs,
+     *                    limited by the pool size of the client.
+     * @return the outcome per server uuid.
+     */
+    public Map<String, OperationResult<Void>> changeServerStatus(
+        final Collection<String> serverUUIDs, final ServerStatus status, final int concurrency) {
+        checkNotNull(status);
+        return this.executeJobs(serverUUIDs,
+            serverUUID -> this.submitChangeServerStatus(serverUUID, status), concurrency);
+    }
+
+    /**
+     * Deletes the given servers.
+     *
+     * @param serverUUIDs the uuids of the servers.
+     * @return the outcome per server uuid.
+     * @see FlexiantComputeClient#deleteResources(Collection, int)
+     */
+    public Map<String, OperationResult<Void>> deleteServers(
+        final Collection<String> serverUUIDs) {
+        return this.deleteResources(serverUUIDs, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Deletes all servers whose names are matching the given prefix.
+     *
+     * @param prefix       the prefix the server names should match.
+     * @param locationUUID optional location of the servers, if null it will be ignored.
+     * @return the outcome per server uuid.
+     * @throws FlexiantException if the servers could not be listed.
+     * @see FlexiantComputeClient#getServers(String, String)
+     */
+    public Map<String, OperationResult<Void>> deleteServers(final String prefix,
+        @Nullable final String locationUUID) throws FlexiantException {
+        return this.deleteServers(this.getServers(prefix, locationUUID).stream()
+            .map(de.uniulm.omi.cloudiator.flexiant.client.domain.Server::getId)
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * Deletes the resources (and all related entities) identified by the given uuids.
+     * <p>
+     * The jobs of all resources are submitted concurrently and tracked together.
+     * A failure for one resource does not affect the others.
+     *
+     * @param uuids       the uuids of the resources.
+     * @param concurrency the maximum number of concurrent calls submitting jobs,
+     *                    limited by the pool size of the client.
+     * @return the outcome per resource uuid.
+     */
+    protected Map<String, OperationResult<Void>> deleteResources(final Collection<String> uuids,
+        final int concurrency) {
+        return this.executeJobs(uuids, this::submitDeleteResource, concurrency);
+    }
+
+    /**
+     * Submits a job for each of the given uuids and waits for all of them.
+     *
+     * @param uuids       the uuids of the items.
+     * @param submission  submits the job for a single item.
+     * @param concurrency the maximum number of concurrent calls submitting jobs,
+     *                    limited by the pool size of the client.
+     * @return the outcome per uuid.
+     */
+    private Map<String, OperationResult<Void>> executeJobs(final Collection<String> uuids,
+        final JobSubmission submission, final int concurrency) {
+
+        checkNotNull(uuids);
+        checkArgument(concurrency > 0, "Concurrency must be positive.");
+        // check up front, so that nothing is submitted for invalid arguments
+        uuids.forEach(Preconditions::checkNotNull);
+
+        final Executor executor = new BoundedExecutor(submissionExecutor, concurrency);
+        final Map<String, CompletableFuture<Job>> jobs = new LinkedHashMap<>();
+        for (String uuid : uuids) {
+            jobs.computeIfAbsent(uuid, u -> CompletableFuture.completedFuture(u)
+                .thenComposeAsync(v -> call(() -> submission.submit(v)), executor)
+                .thenCompose(jobTracker::track));
+        }
+        CompletableFuture.allOf(jobs.values().toArray(new CompletableFuture[jobs.size()]))
+            .exceptionally(t -> null).join();
+
+        final Map<String, OperationResult<Void>> results = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<Job>> entry : jobs.entrySet()) {
+            serverCache.invalidate(entry.getKey());
+            results.put(entry.getKey(), entry.getValue()
+                .handle((job, t) -> t == null ?
+                    OperationResult.<Void>success(null) :
+                    OperationResult.<Void>failure(t)).join());
         }
+        return results;
     }
 
     /**
@@ -376,15 +904,82 @@ public class FlexiantComputeClient {
      * @throws FlexiantException
      */
     protected void changeServerStatus(String serverUUID, ServerStatus status)
+        throws FlexiantException {
+        Job job = this.submitChangeServerStatus(serverUUID, status);
+        serverCache.invalidate(itemOf(this.waitForJob(job), serverUUID));
+    }
+
+    /**
+     * Submits the job changing the server status, without waiting for the job.
+     *
+     * @param serverUUID the id of the server.
+     * @param status     the status the server should change to.
+     * @return a future completed once the job finished.
+     * @throws FlexiantException if the job could not be submitted.
+     */
+    CompletableFuture<Void> trackChangeServerStatus(final String serverUUID,
+        final ServerStatus status) throws FlexiantException {
+        return this.track(this.submitChangeServerStatus(serverUUID, status), serverUUID);
+    }
+
+    /**
+     * Tracks the given job, invalidating its item in the server cache once it finished.
+     *
+     * @param job  the submitted job.
+     * @param uuid the uuid of the item, used if the job does not name it.
+     * @return a future completed once the job finished.
+     */
+    private CompletableFuture<Void> track(final Job job, final String uuid) {
+        return jobTracker.track(job)
+            .thenAccept(finished -> serverCache.invalidate(itemOf(finished, uuid)));
+    }
+
+    /**
+     * Submits the job changing the server status to the given status.
+     *
+     * @param serverUUID the id of the server.
+     * @param status     the status the server should change to.
+     * @return the submitted job.
+     * @throws FlexiantException
+     */
+    protected Job submitChangeServerStatus(String serverUUID, ServerStatus status)
         throws FlexiantException {
         try {
-            Job job = this.getService().changeServerStatus(serverUUID, status, true, null, null);
-            this.waitForJob(job);
+            return this.getService().changeServerStatus(serverUUID, status, true, null, null);
         } catch (ExtilityException e) {
-            throw new FlexiantException("Could not start server", e);
+            throw new FlexiantException(
+                String.format("Could not change status of server %s to %s", serverUUID, status),
+                e);
         }
     }
 
+    /**
+     * Executes the given operation, returning its outcome as a completed future.
+     *
+     * @param operation the operation.
+     * @return a future completed with the result or the exception of the operation.
+     */
+    private static <T> CompletableFuture<T> call(final ResourceLoader<T> operation) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(operation.load());
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+        return future;
+    }
+
+    /**
+     * Returns the uuid of the item the given job was executed on.
+     *
+     * @param job      the job.
+     * @param fallback the uuid to use if the job does not name its item.
+     * @return the uuid of the item.
+     */
+    private static String itemOf(Job job, String fallback) {
+        return job.getItemUUID() != null ? job.getItemUUID() : fallback;
+    }
+
     /**
      * Returns information about the given server.
      *
@@ -394,13 +989,47 @@ public class FlexiantComputeClient {
      */
     @Nullable public de.uniulm.omi.cloudiator.flexiant.client.domain.Server getServer(
         final String serverUUID) throws FlexiantException {
-        final io.github.cloudiator.flexiant.extility.Server server =
-            this.getResource(serverUUID, ResourceType.SERVER,
-                io.github.cloudiator.flexiant.extility.Server.class);
-        if (server == null) {
-            return null;
-        }
-        return new de.uniulm.omi.cloudiator.flexiant.client.domain.Server(server);
+        return serverCache.getServer(serverUUID, () -> {
+            final io.github.cloudiator.flexiant.extility.Server server =
+                this.getResource(serverUUID, ResourceType.SERVER,
+                    io.github.cloudiator.flexiant.extility.Server.class);
+            if (server == null) {
+                return null;
+            }
+            return new de.uniulm.omi.cloudiator.flexiant.client.domain.Server(server);
+        });
+    }
+
+    /**
+     * Returns information about the given servers.
+     * <p>
+     * In contrast to {@link FlexiantComputeClient#getServer(String)}, the servers
+     * are retrieved using a single call per chunk of uuids.
+     *
+     * @param serverUUIDs the ids of the servers.
+     * @return a map of the found servers, keyed by their id. Missing servers are not contained.
+     * @throws FlexiantException
+     */
+    public Map<String, de.uniulm.omi.cloudiator.flexiant.client.domain.Server> getServersByUUID(
+        final Collection<String> serverUUIDs) throws FlexiantException {
+        return this.getResources(serverUUIDs, ResourceType.SERVER, Server.class).entrySet()
+            .stream().collect(Collectors.toMap(Map.Entry::getKey,
+                e -> new de.uniulm.omi.cloudiator.flexiant.client.domain.Server(e.getValue())));
+    }
+
+    /**
+     * Retrieves the images identified by the given uuids.
+     *
+     * @param imageUUIDs the ids of the images.
+     * @return a map of the found images, keyed by their id. Missing images are not contained.
+     * @throws FlexiantException
+     * @see FlexiantComputeClient#getServersByUUID(Collection)
+     */
+    public Map<String, de.uniulm.omi.cloudiator.flexiant.client.domain.Image> getImagesByUUID(
+        final Collection<String> imageUUIDs) throws FlexiantException {
+        return this.getResources(imageUUIDs, ResourceType.IMAGE, Image.class).entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey,
+                e -> new de.uniulm.omi.cloudiator.flexiant.client.domain.Image(e.getValue())));
     }
 
     /**
@@ -438,10 +1067,11 @@ public class FlexiantComputeClient {
 
         checkArgument(parts.length == 2, "Expected hardwareUUID to contain :");
 
-        final ProductOffer machineOffer =
-            this.getResource(parts[0], ResourceType.PRODUCTOFFER, ProductOffer.class);
-        final ProductOffer diskOffer =
-            this.getResource(parts[1], ResourceType.PRODUCTOFFER, ProductOffer.class);
+        final Map<String, ProductOffer> offers = this
+            .getResources(Arrays.asList(parts[0], parts[1]), ResourceType.PRODUCTOFFER,
+                ProductOffer.class);
+        final ProductOffer machineOffer = offers.get(parts[0]);
+        final ProductOffer diskOffer = offers.get(parts[1]);
 
 
         if (machineOffer == null || diskOffer == null) {
@@ -510,6 +1140,12 @@ public class FlexiantComputeClient {
     @Nullable protected <T> T getResource(final String resourceUUID,
         final ResourceType resourceType, final Class<T> type) throws FlexiantException {
 
+        if (catalogCache.isCached(resourceType)) {
+            return catalogCache
+                .getResourcesByUUID(resourceType, Collections.singleton(resourceUUID), type,
+                    missing -> this.loadResources(missing, resourceType, type)).get(resourceUUID);
+        }
+
         SearchFilter sf = new SearchFilter();
         FilterCondition fc = new FilterCondition();
 
@@ -522,6 +1158,66 @@ public class FlexiantComputeClient {
         return this.getSingleResource(sf, resourceType, type);
     }
 
+    /**
+     * Retrieves the resources identified by the given uuids.
+     * <p>
+     * The uuids are split into chunks, each chunk is retrieved with a single
+     * call using a filter condition with multiple values.
+     *
+     * @param resourceUUIDs the uuids of the resources.
+     * @param resourceType  the type of the resources.
+     * @param type          the type of the resulting class
+     * @param <T>           the type of the resulting class
+     * @return a map of the found resources, keyed by their uuid.
+     * @throws FlexiantException
+     */
+    protected <T extends Resource> Map<String, T> getResources(
+        final Collection<String> resourceUUIDs, final ResourceType resourceType,
+        final Class<T> type) throws FlexiantException {
+
+        checkNotNull(resourceUUIDs);
+
+        if (catalogCache.isCached(resourceType)) {
+            return catalogCache.getResourcesByUUID(resourceType, resourceUUIDs, type,
+                missing -> this.loadResources(missing, resourceType, type));
+        }
+        return this.loadResources(resourceUUIDs, resourceType, type);
+    }
+
+    /**
+     * Loads the resources identified by the given uuids from the api.
+     *
+     * @see FlexiantComputeClient#getResources(Collection, ResourceType, Class)
+     */
+    private <T> Map<String, T> loadResources(final Collection<String> resourceUUIDs,
+        final ResourceType resourceType, final Class<T> type) throws FlexiantException {
+
+        final Map<String, T> resources = new HashMap<>(resourceUUIDs.size());
+        for (List<String> chunk : Iterables
+            .partition(new LinkedHashSet<>(resourceUUIDs), BULK_CHUNK_SIZE)) {
+
+            SearchFilter sf = new SearchFilter();
+            FilterCondition fc = new FilterCondition();
+
+            fc.setCondition(Condition.IS_EQUAL_TO);
+            fc.setField("resourceUUID");
+            fc.getValue().addAll(chunk);
+            sf.getFilterConditions().add(fc);
+
+            try {
+                for (Object o : this.getService().listResources(sf, null, resourceType)
+                    .getList()) {
+                    resources.put(((Resource) o).getResourceUUID(), type.cast(o));
+                }
+            } catch (ExtilityException e) {
+                throw new FlexiantException(String
+                    .format("Error while retrieving %d resources of resourceType %s.",
+                        chunk.size(), resourceType), e);
+            }
+        }
+        return resources;
+    }
+
     /**
      * Retrieves a single resource using the given search filter and the
      * given resource type.
@@ -610,15 +1306,22 @@ public class FlexiantComputeClient {
     protected <T> List<T> getResources(final ResourceType resourceType, final Class<T> type,
         @Nullable final String locationUUID) throws FlexiantException {
 
-        SearchFilter sf = new SearchFilter();
-
-        if (locationUUID != null) {
-            FilterCondition fcLocation = new FilterCondition();
-            fcLocation.setCondition(Condition.IS_EQUAL_TO);
-            fcLocation.setField("vdcUUID");
-            fcLocation.getValue().add(locationUUID);
-            sf.getFilterConditions().add(fcLocation);
+        if (catalogCache.isCached(resourceType)) {
+            return catalogCache.getResources(resourceType, locationUUID, type,
+                () -> this.loadResources(resourceType, type, locationUUID));
         }
+        return this.loadResources(resourceType, type, locationUUID);
+    }
+
+    /**
+     * Loads all resources of the given type from the api.
+     *
+     * @see FlexiantComputeClient#getResources(ResourceType, Class, String)
+     */
+    private <T> List<T> loadResources(final ResourceType resourceType, final Class<T> type,
+        @Nullable final String locationUUID) throws FlexiantException {
+
+        SearchFilter sf = this.locationFilter(locationUUID);
 
         try {
             //noinspection unchecked
@@ -629,4 +1332,42 @@ public class FlexiantComputeClient {
                 e);
         }
     }
+
+    /**
+     * Returns a lazily loaded stream of all resources of the given type.
+     *
+     * @param resourceType the resource type.
+     * @param type         the type of the resulting class.
+     * @param locationUUID optional location of the type, if null it will be ignored
+     * @param pageSize     the number of resources requested per call.
+     * @return a stream of all resources of the given type.
+     * @see PagedResourceIterator
+     */
+    protected <T> Stream<T> streamResources(final ResourceType resourceType, final Class<T> type,
+        @Nullable final String locationUUID, final int pageSize) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+            new PagedResourceIterator<>(this.getService(), this.locationFilter(locationUUID),
+                resourceType, type, pageSize), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Creates a search filter restricting the result to the given location.
+     *
+     * @param locationUUID optional location, if null the filter matches everything.
+     * @return the search filter.
+     */
+    private SearchFilter locationFilter(@Nullable final String locationUUID) {
+
+        SearchFilter sf = new SearchFilter();
+
+        if (locationUUID != null) {
+            FilterCondition fcLocation = new FilterCondition();
+            fcLocation.setCondition(Condition.IS_EQUAL_TO);
+            fcLocation.setField("vdcUUID");
+            fcLocation.getValue().add(locationUUID);
+            sf.getFilterConditions().add(fcLocation);
+        }
+
+        return sf;
+    }
 }
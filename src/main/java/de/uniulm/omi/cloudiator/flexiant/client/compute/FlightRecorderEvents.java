@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import io.github.cloudiator.flexiant.extility.FilterCondition;
+import io.github.cloudiator.flexiant.extility.Job;
+import io.github.cloudiator.flexiant.extility.JobStatus;
+import io.github.cloudiator.flexiant.extility.ListResult;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import io.github.cloudiator.flexiant.extility.SearchFilter;
+import io.github.cloudiator.flexiant.extility.UserService;
+
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Emits the flight recorder events.
+ * <p>
+ * The event types are defined at runtime with the jdk.jfr.EventFactory, which is only
+ * accessed reflectively. This keeps the client compatible with JVMs without the jdk.jfr
+ * api (e.g. Java 8), on which {@link #isAvailable()} returns false. This class must only be
+ * used through {@link FlightRecorderSupport}.
+ */
+final class FlightRecorderEvents {
+
+    private static final int MAX_FILTER_VALUES = 3;
+
+    @Nullable private static final EventType SOAP_CALL = EventType
+        .define("de.uniulm.omi.cloudiator.flexiant.SoapCall", "Flexiant SOAP Call",
+            "A call of an operation of the Flexiant user api on a pooled port, excluding "
+                + "the wait for the port. The sizes are only measured if a soap phase "
+                + "listener is configured.",
+            new String[] {"Flexiant", "SOAP"},
+            new Field(String.class, "operation", "Operation", null, false),
+            new Field(String.class, "resourceType", "Resource Type", null, false),
+            new Field(String.class, "filter", "Filter", "The filter conditions of the query.",
+                false),
+            new Field(int.class, "resultCount", "Result Count",
+                "Number of returned resources, -1 if not a list.", false),
+            new Field(long.class, "requestBytes", "Request Size",
+                "-1 without a soap phase listener.", true),
+            new Field(long.class, "responseBytes", "Response Size",
+                "-1 without a soap phase listener.", true),
+            new Field(String.class, "failure", "Failure", null, false));
+
+    @Nullable private static final EventType JOB_WAIT = EventType
+        .define("de.uniulm.omi.cloudiator.flexiant.JobWait", "Flexiant Job Wait",
+            "Waiting for a job of the Flexiant api.", new String[] {"Flexiant", "Jobs"},
+            new Field(String.class, "jobUUID", "Job UUID", null, false),
+            new Field(String.class, "itemUUID", "Item UUID", null, false),
+            new Field(String.class, "status", "Status",
+                "The final status of the job, null if it timed out or was failed.", false));
+
+    private FlightRecorderEvents() {
+        throw new AssertionError("Do not instantiate");
+    }
+
+    /**
+     * @return true if the event types could be defined.
+     */
+    static boolean isAvailable() {
+        return SOAP_CALL != null && JOB_WAIT != null;
+    }
+
+    static Object invoke(final UserService delegate, final Method method, final Object[] args)
+        throws Throwable {
+        final EventType type = SOAP_CALL;
+        if (!type.isEnabled()) {
+            return invokeDirectly(delegate, method, args);
+        }
+
+        final Object event = type.newEvent();
+        type.begin(event);
+        final boolean owner = MessageTimingHandler.begin();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = invokeDirectly(delegate, method, args);
+            return result;
+        } catch (Throwable t) {
+            failure = t;
+            throw t;
+        } finally {
+            final CallTiming timing = MessageTimingHandler.end(owner);
+            type.end(event);
+            if (type.shouldCommit(event)) {
+                type.commit(event, method.getName(), describe(args), describeFilter(args),
+                    result instanceof ListResult ? ((ListResult) result).getList().size() : -1,
+                    timing.requestBytes, timing.responseBytes,
+                    failure == null ? null : failure.toString());
+            }
+        }
+    }
+
+    @Nullable static Object beginJobWait() {
+        if (!JOB_WAIT.isEnabled()) {
+            return null;
+        }
+        final Object event = JOB_WAIT.newEvent();
+        JOB_WAIT.begin(event);
+        return event;
+    }
+
+    static void endJobWait(final Object handle, final Job job, final JobStatus status) {
+        JOB_WAIT.end(handle);
+        if (JOB_WAIT.shouldCommit(handle)) {
+            JOB_WAIT.commit(handle, job.getResourceUUID(), job.getItemUUID(),
+                status == null ? null : status.name());
+        }
+    }
+
+    private static Object invokeDirectly(final UserService delegate, final Method method,
+        final Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String describe(final Object[] args) {
+        if (args != null) {
+            for (Object arg : args) {
+                if (arg instanceof ResourceType) {
+                    return ((ResourceType) arg).name();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String describeFilter(final Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        for (Object arg : args) {
+            if (arg instanceof SearchFilter) {
+                final StringBuilder builder = new StringBuilder();
+                for (FilterCondition filterCondition : ((SearchFilter) arg)
+                    .getFilterConditions()) {
+                    if (builder.length() > 0) {
+                        builder.append(", ");
+                    }
+                    final List<String> values = filterCondition.getValue();
+                    builder.append(filterCondition.getField()).append(' ')
+                        .append(filterCondition.getCondition()).append(' ')
+                        .append(values.subList(0, Math.min(values.size(), MAX_FILTER_VALUES)));
+                    if (values.size() > MAX_FILTER_VALUES) {
+                        builder.append(" and ").append(values.size() - MAX_FILTER_VALUES)
+                            .append(" more");
+                    }
+                }
+                return builder.toString();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A field of an event type.
+     */
+    private static final class Field {
+
+        private final Class<?> type;
+        private final String name;
+        private final String label;
+        @Nullable private final String description;
+        private final boolean dataAmount;
+
+        private Field(final Class<?> type, final String name, final String label,
+            @Nullable final String description, final boolean dataAmount) {
+            this.type = type;
+            this.name = name;
+            this.label = label;
+            this.description = description;
+            this.dataAmount = dataAmount;
+        }
+    }
+
+
+    /**
+     * An event type defined with the jdk.jfr.EventFactory.
+     */
+    private static final class EventType {
+
+        private static final String JFR = "jdk.jfr.";
+        private static final MethodType EVENT_METHOD =
+            MethodType.methodType(void.class, Object.class);
+
+        private final MethodHandle newEvent;
+        private final MethodHandle enabled;
+        private final MethodHandle begin;
+        private final MethodHandle end;
+        private final MethodHandle shouldCommit;
+        private final MethodHandle set;
+        private final MethodHandle commit;
+
+        private EventType(final Object factory) throws ReflectiveOperationException {
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            final Class<?> eventClass = Class.forName(JFR + "Event");
+            this.newEvent = lookup.findVirtual(factory.getClass(), "newEvent",
+                MethodType.methodType(eventClass)).bindTo(factory)
+                .asType(MethodType.methodType(Object.class));
+            final Class<?> eventTypeClass = Class.forName(JFR + "EventType");
+            this.enabled = lookup.findVirtual(eventTypeClass, "isEnabled",
+                MethodType.methodType(boolean.class))
+                .bindTo(factory.getClass().getMethod("getEventType").invoke(factory));
+            this.begin = lookup.findVirtual(eventClass, "begin",
+                MethodType.methodType(void.class)).asType(EVENT_METHOD);
+            this.end = lookup.findVirtual(eventClass, "end", MethodType.methodType(void.class))
+                .asType(EVENT_METHOD);
+            this.commit = lookup.findVirtual(eventClass, "commit",
+                MethodType.methodType(void.class)).asType(EVENT_METHOD);
+            this.shouldCommit = lookup.findVirtual(eventClass, "shouldCommit",
+                MethodType.methodType(boolean.class))
+                .asType(MethodType.methodType(boolean.class, Object.class));
+            this.set = lookup.findVirtual(eventClass, "set",
+                MethodType.methodType(void.class, int.class, Object.class))
+                .asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+        }
+
+        /**
+         * Defines and registers a new event type.
+         *
+         * @return the event type, null if the jdk.jfr api is not available.
+         */
+        @Nullable static EventType define(final String name, final String label,
+            final String description, final String[] category, final Field... fields) {
+            try {
+                final List<Object> annotations = Arrays
+                    .asList(annotation("Name", name), annotation("Label", label),
+                        annotation("Description", description),
+                        annotation("Category", category));
+                final Class<?> descriptorClass = Class.forName(JFR + "ValueDescriptor");
+                final List<Object> descriptors = new ArrayList<>(fields.length);
+                for (Field field : fields) {
+                    final List<Object> fieldAnnotations = new ArrayList<>(3);
+                    fieldAnnotations.add(annotation("Label", field.label));
+                    if (field.description != null) {
+                        fieldAnnotations.add(annotation("Description", field.description));
+                    }
+                    if (field.dataAmount) {
+                        fieldAnnotations.add(annotation("DataAmount", "BYTES"));
+                    }
+                    descriptors.add(descriptorClass
+                        .getConstructor(Class.class, String.class, List.class)
+                        .newInstance(field.type, field.name, fieldAnnotations));
+                }
+                final Object factory = Class.forName(JFR + "EventFactory")
+                    .getMethod("create", List.class, List.class)
+                    .invoke(null, annotations, descriptors);
+                return new EventType(factory);
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+                return null;
+            }
+        }
+
+        private static Object annotation(final String type, final Object value)
+            throws ReflectiveOperationException {
+            return Class.forName(JFR + "AnnotationElement")
+                .getConstructor(Class.class, Object.class)
+                .newInstance(Class.forName(JFR + type), value);
+        }
+
+        Object newEvent() {
+            try {
+                return (Object) newEvent.invokeExact();
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        /**
+         * Checks the settings of the event type, without allocating an event.
+         *
+         * @return true if the type is enabled in a running recording.
+         */
+        boolean isEnabled() {
+            try {
+                return (boolean) enabled.invokeExact();
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        void begin(final Object event) {
+            try {
+                begin.invokeExact(event);
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        void end(final Object event) {
+            try {
+                end.invokeExact(event);
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        boolean shouldCommit(final Object event) {
+            try {
+                return (boolean) shouldCommit.invokeExact(event);
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        /**
+         * Sets the fields in the order of their definition and commits the event.
+         */
+        void commit(final Object event, final Object... values) {
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    set.invokeExact(event, i, values[i]);
+                }
+                commit.invokeExact(event);
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        private static RuntimeException propagate(final Throwable t) {
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            }
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+            return new IllegalStateException(t);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.reflect.AbstractInvocationHandler;
+import com.google.common.reflect.Reflection;
+import io.github.cloudiator.flexiant.extility.Job;
+import io.github.cloudiator.flexiant.extility.JobStatus;
+import io.github.cloudiator.flexiant.extility.UserService;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Support for Java Flight Recorder events of the client.
+ * <p>
+ * Emits a Flexiant SOAP Call event per call against the api and a Flexiant Job Wait event per
+ * tracked job. If the running JVM does not provide the jdk.jfr api, all methods do nothing.
+ * While the events are disabled in the recording settings, the overhead is a check of
+ * the event type per call, no event is allocated. A call event covers the call on a
+ * pooled port, without the wait for the port. The request and response sizes of a call
+ * are only measured if a
+ * {@link ClientConfiguration.ClientConfigurationBuilder#soapPhaseListener soap phase listener}
+ * is configured, otherwise they are -1.
+ */
+final class FlightRecorderSupport {
+
+    private static final boolean AVAILABLE = FlightRecorderEvents.isAvailable();
+
+    private FlightRecorderSupport() {
+        throw new AssertionError("Do not instantiate");
+    }
+
+    /**
+     * @return true if the jdk.jfr api is available and the events are registered.
+     */
+    static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Wraps the given service, so that every call emits an event.
+     *
+     * @param service the service to wrap.
+     * @return the recording service, or the given service if flight recorder is not available.
+     */
+    static UserService recording(final UserService service) {
+        checkNotNull(service);
+        if (!AVAILABLE) {
+            return service;
+        }
+        return Reflection.newProxy(UserService.class, new AbstractInvocationHandler() {
+            @Override protected Object handleInvocation(Object proxy, Method method,
+                Object[] args) throws Throwable {
+                return FlightRecorderEvents.invoke(service, method, args);
+            }
+
+            @Override public String toString() {
+                return String.format("FlightRecorder{delegate=%s}", service);
+            }
+        });
+    }
+
+    /**
+     * Starts the wait for a job.
+     *
+     * @return a handle for {@link #endJobWait}, null if flight recorder is not available or
+     * the event is disabled.
+     */
+    @Nullable static Object beginJobWait() {
+        return AVAILABLE ? FlightRecorderEvents.beginJobWait() : null;
+    }
+
+    /**
+     * Ends the wait for a job, emitting the event if it is enabled.
+     *
+     * @param handle the handle returned by {@link #beginJobWait()}.
+     * @param job    the job.
+     * @param status the final status of the job, null if it timed out or was failed.
+     */
+    static void endJobWait(@Nullable final Object handle, final Job job,
+        @Nullable final JobStatus status) {
+        if (handle != null) {
+            FlightRecorderEvents.endJobWait(handle, job, status);
+        }
+    }
+}
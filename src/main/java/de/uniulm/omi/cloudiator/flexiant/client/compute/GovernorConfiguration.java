@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Configuration of the governor limiting the calls against the api.
+ * <p>
+ * By default, calls are not limited. To create a new instance, use the builder.
+ *
+ * @see CallGovernor
+ * @see GovernorConfiguration.GovernorConfigurationBuilder
+ */
+public class GovernorConfiguration {
+
+    private final Map<OperationType, Double> permitsPerSecond;
+    private final int initialConcurrency;
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final long latencyThresholdMillis;
+
+    private GovernorConfiguration(final Map<OperationType, Double> permitsPerSecond,
+        final int initialConcurrency, final int minConcurrency, final int maxConcurrency,
+        final long latencyThresholdMillis) {
+
+        checkNotNull(permitsPerSecond);
+        checkArgument(minConcurrency > 0, "Minimum concurrency must be positive.");
+        checkArgument(maxConcurrency >= minConcurrency,
+            "Maximum concurrency must not be smaller than minimum concurrency.");
+        checkArgument(initialConcurrency >= minConcurrency && initialConcurrency <= maxConcurrency,
+            "Initial concurrency must be between minimum and maximum concurrency.");
+        checkArgument(latencyThresholdMillis >= 0, "Latency threshold must not be negative.");
+
+        this.permitsPerSecond = Collections.unmodifiableMap(new EnumMap<>(permitsPerSecond));
+        this.initialConcurrency = initialConcurrency;
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.latencyThresholdMillis = latencyThresholdMillis;
+    }
+
+    /**
+     * @return a configuration which does not limit any calls.
+     */
+    public static GovernorConfiguration disabled() {
+        return new GovernorConfigurationBuilder().build();
+    }
+
+    /**
+     * @return true if calls are limited at all.
+     */
+    public boolean isEnabled() {
+        return !permitsPerSecond.isEmpty() || maxConcurrency != Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return the maximum rate of calls per operation type, types without rate are unlimited.
+     */
+    public Map<OperationType, Double> getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * @return the number of concurrent calls allowed initially.
+     */
+    public int getInitialConcurrency() {
+        return initialConcurrency;
+    }
+
+    /**
+     * @return the lower bound of concurrent calls.
+     */
+    public int getMinConcurrency() {
+        return minConcurrency;
+    }
+
+    /**
+     * @return the upper bound of concurrent calls.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return the latency in milliseconds above which the concurrency is decreased, 0 to ignore latency.
+     */
+    public long getLatencyThresholdMillis() {
+        return latencyThresholdMillis;
+    }
+
+    /**
+     * Builder for the governor configuration.
+     *
+     * @see GovernorConfiguration
+     */
+    public static class GovernorConfigurationBuilder {
+
+        private final Map<OperationType, Double> permitsPerSecond;
+        private int initialConcurrency;
+        private int minConcurrency;
+        private int maxConcurrency;
+        private long latencyThresholdMillis;
+
+        /**
+         * No-args constructor.
+         * <p>
+         * Initializes the builder with the default values, not limiting any calls.
+         */
+        public GovernorConfigurationBuilder() {
+            this.permitsPerSecond = new EnumMap<>(OperationType.class);
+            this.initialConcurrency = Integer.MAX_VALUE;
+            this.minConcurrency = 1;
+            this.maxConcurrency = Integer.MAX_VALUE;
+            this.latencyThresholdMillis = 0;
+        }
+
+        /**
+         * Limits the rate of calls of the given operation type.
+         *
+         * @param operationType    the type of the operations.
+         * @param permitsPerSecond the maximum number of calls per second.
+         * @return fluent interface
+         */
+        public GovernorConfigurationBuilder rate(final OperationType operationType,
+            final double permitsPerSecond) {
+            checkNotNull(operationType);
+            checkArgument(permitsPerSecond > 0, "Rate must be positive.");
+            this.permitsPerSecond.put(operationType, permitsPerSecond);
+            return this;
+        }
+
+        /**
+         * Limits the number of concurrent calls. Within the given bounds, the limit is
+         * adapted to the observed latency and errors: it is increased additively while
+         * calls succeed in time and halved on overload. All bounds are capped at the
+         * pool size of the client.
+         *
+         * @param initial the number of concurrent calls allowed initially.
+         * @param min     the lower bound of concurrent calls.
+         * @param max     the upper bound of concurrent calls.
+         * @return fluent interface
+         */
+        public GovernorConfigurationBuilder concurrency(final int initial, final int min,
+            final int max) {
+            this.initialConcurrency = initial;
+            this.minConcurrency = min;
+            this.maxConcurrency = max;
+            return this;
+        }
+
+        /**
+         * Sets the latency above which a call is considered as a sign of overload.
+         *
+         * @param threshold the latency threshold, 0 to ignore latency.
+         * @param unit      the unit of the threshold.
+         * @return fluent interface
+         */
+        public GovernorConfigurationBuilder latencyThreshold(final long threshold,
+            final TimeUnit unit) {
+            checkNotNull(unit);
+            this.latencyThresholdMillis = unit.toMillis(threshold);
+            return this;
+        }
+
+        public GovernorConfiguration build() {
+            return new GovernorConfiguration(this.permitsPerSecond, this.initialConcurrency,
+                this.minConcurrency, this.maxConcurrency, this.latencyThresholdMillis);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.uniulm.omi.cloudiator.flexiant.client.api.FlexiantException;
+import de.uniulm.omi.cloudiator.flexiant.client.metrics.MetricsListener;
+import io.github.cloudiator.flexiant.extility.Condition;
+import io.github.cloudiator.flexiant.extility.ExtilityException;
+import io.github.cloudiator.flexiant.extility.FilterCondition;
+import io.github.cloudiator.flexiant.extility.Job;
+import io.github.cloudiator.flexiant.extility.JobStatus;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import io.github.cloudiator.flexiant.extility.SearchFilter;
+import io.github.cloudiator.flexiant.extility.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Tracks the execution of jobs.
+ * <p>
+ * Instead of blocking a thread per job on the server side wait, a single background
+ * thread periodically queries the status of all outstanding jobs, using one call per
+ * chunk of jobs. The future of a job is completed once the job reaches a final status.
+ * The background thread only runs while jobs are outstanding.
+ */
+public class JobTracker implements AutoCloseable {
+
+    /**
+     * Maximum number of jobs queried with a single call.
+     */
+    private static final int CHUNK_SIZE = 100;
+
+    /**
+     * Number of consecutively failed polls after which all outstanding jobs are failed.
+     */
+    private static final int MAX_POLL_FAILURES = 10;
+
+    private final UserService service;
+    private final long pollIntervalMillis;
+    private final long jobTimeoutMillis;
+    private final MetricsListener metricsListener;
+    private final ConcurrentMap<String, TrackedJob> pending;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final AtomicBoolean polling;
+    private final ReentrantLock lock;
+    private boolean closed;
+    private int pollFailures;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param service            the service used for querying the jobs.
+     * @param pollIntervalMillis the time between two polls in milliseconds.
+     * @param jobTimeoutMillis   the maximum time a job is tracked in milliseconds, 0 for no limit.
+     */
+    public JobTracker(final UserService service, final long pollIntervalMillis,
+        final long jobTimeoutMillis) {
+        this(service, pollIntervalMillis, jobTimeoutMillis, MetricsListener.NOOP);
+    }
+
+    /**
+     * Constructor for the class.
+     *
+     * @param service            the service used for querying the jobs.
+     * @param pollIntervalMillis the time between two polls in milliseconds.
+     * @param jobTimeoutMillis   the maximum time a job is tracked in milliseconds, 0 for no limit.
+     * @param metricsListener    the listener receiving the time waited for jobs.
+     */
+    public JobTracker(final UserService service, final long pollIntervalMillis,
+        final long jobTimeoutMillis, final MetricsListener metricsListener) {
+
+        checkNotNull(service);
+        checkNotNull(metricsListener);
+        checkArgument(pollIntervalMillis > 0, "Poll interval must be positive.");
+        checkArgument(jobTimeoutMillis >= 0, "Job timeout must not be negative.");
+
+        this.service = service;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.jobTimeoutMillis = jobTimeoutMillis;
+        this.metricsListener = metricsListener;
+        this.pending = new ConcurrentHashMap<>();
+        this.polling = new AtomicBoolean(false);
+        this.lock = new ReentrantLock();
+        this.closed = false;
+        this.pollFailures = 0;
+
+        this.scheduler = new ScheduledThreadPoolExecutor(1,
+            new ThreadFactoryBuilder().setNameFormat("flexiant-job-tracker-%d").setDaemon(true)
+                .build());
+        this.scheduler.setKeepAliveTime(pollIntervalMillis * 10, TimeUnit.MILLISECONDS);
+        this.scheduler.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Tracks the given job.
+     * <p>
+     * The future is completed by the polling thread. Dependent actions doing further
+     * calls should be registered using the async methods of the future.
+     *
+     * @param job the job as returned when it was submitted.
+     * @return a future completed with the finished job if it was successful, otherwise
+     * completed exceptionally with a {@link FlexiantException}.
+     */
+    public CompletableFuture<Job> track(final Job job) {
+        checkNotNull(job);
+        checkNotNull(job.getResourceUUID());
+
+        if (isFinal(job.getStatus())) {
+            final CompletableFuture<Job> finished = new CompletableFuture<>();
+            complete(finished, job);
+            return finished;
+        }
+
+        // registered under the lock, so that close either sees the job or rejects it
+        lock.lock();
+        try {
+            if (closed) {
+                final CompletableFuture<Job> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(new FlexiantException("Job tracker was closed."));
+                return rejected;
+            }
+            final TrackedJob trackedJob =
+                pending.computeIfAbsent(job.getResourceUUID(), uuid -> new TrackedJob(job));
+            schedulePoll();
+            return trackedJob.future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of jobs currently tracked.
+     */
+    public int getPendingJobs() {
+        return pending.size();
+    }
+
+    /**
+     * Stops tracking. Outstanding jobs are failed.
+     */
+    @Override public void close() {
+        lock.lock();
+        try {
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        scheduler.shutdownNow();
+        failAll(new FlexiantException("Job tracker was closed."));
+    }
+
+    private void schedulePoll() {
+        if (polling.compareAndSet(false, true)) {
+            scheduler.schedule(this::poll, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void poll() {
+        try {
+            pollOnce();
+            expire();
+        } finally {
+            polling.set(false);
+            lock.lock();
+            try {
+                if (!pending.isEmpty() && !closed) {
+                    schedulePoll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void pollOnce() {
+        final List<String> jobUUIDs = new ArrayList<>(pending.keySet());
+        for (List<String> chunk : Iterables.partition(jobUUIDs, CHUNK_SIZE)) {
+
+            SearchFilter sf = new SearchFilter();
+            FilterCondition fc = new FilterCondition();
+
+            fc.setCondition(Condition.IS_EQUAL_TO);
+            fc.setField("resourceUUID");
+            fc.getValue().addAll(chunk);
+            sf.getFilterConditions().add(fc);
+
+            final List<Object> jobs;
+            try {
+                jobs = service.listResources(sf, null, ResourceType.JOB).getList();
+                pollFailures = 0;
+            } catch (ExtilityException | RuntimeException e) {
+                if (++pollFailures >= MAX_POLL_FAILURES) {
+                    failAll(new FlexiantException(String
+                        .format("Could not query status of jobs for %d consecutive times.",
+                            pollFailures), e));
+                    // jobs tracked afterwards get a full budget of failed polls
+                    pollFailures = 0;
+                }
+                return;
+            }
+
+            for (Object o : jobs) {
+                final Job job = (Job) o;
+                final TrackedJob trackedJob = pending.get(job.getResourceUUID());
+                if (trackedJob != null && isFinal(job.getStatus()) && pending
+                    .remove(job.getResourceUUID(), trackedJob)) {
+                    metricsListener.onJobFinished(job.getResourceUUID(), job.getStatus(),
+                        System.nanoTime() - trackedJob.startNanos);
+                    FlightRecorderSupport.endJobWait(trackedJob.jfrHandle, job, job.getStatus());
+                    complete(trackedJob.future, job);
+                }
+            }
+        }
+    }
+
+    private void expire() {
+        if (jobTimeoutMillis == 0) {
+            return;
+        }
+        final long now = System.nanoTime();
+        for (Map.Entry<String, TrackedJob> entry : pending.entrySet()) {
+            final TrackedJob trackedJob = entry.getValue();
+            if (now - trackedJob.startNanos > TimeUnit.MILLISECONDS.toNanos(jobTimeoutMillis)
+                && pending.remove(entry.getKey(), trackedJob)) {
+                metricsListener.onJobFinished(entry.getKey(), null, now - trackedJob.startNanos);
+                FlightRecorderSupport.endJobWait(trackedJob.jfrHandle, trackedJob.job, null);
+                trackedJob.future.completeExceptionally(new FlexiantException(String
+                    .format("Job %s for item %s did not finish within %d ms.",
+                        trackedJob.job.getResourceUUID(), trackedJob.job.getItemUUID(),
+                        jobTimeoutMillis)));
+            }
+        }
+    }
+
+    private void failAll(final FlexiantException e) {
+        final long now = System.nanoTime();
+        for (Map.Entry<String, TrackedJob> entry : pending.entrySet()) {
+            final TrackedJob trackedJob = entry.getValue();
+            if (pending.remove(entry.getKey(), trackedJob)) {
+                metricsListener.onJobFinished(entry.getKey(), null, now - trackedJob.startNanos);
+                FlightRecorderSupport.endJobWait(trackedJob.jfrHandle, trackedJob.job, null);
+                trackedJob.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static void complete(final CompletableFuture<Job> future, final Job job) {
+        if (JobStatus.SUCCESSFUL.equals(job.getStatus())) {
+            future.complete(job);
+        } else {
+            future.completeExceptionally(new FlexiantException(String.format(
+                "Problem during execution of job %s for item %s. Execution was not successful. Job is in status %s.",
+                job.getResourceUUID(), job.getItemUUID(), job.getStatus())));
+        }
+    }
+
+    private static boolean isFinal(final JobStatus status) {
+        return JobStatus.SUCCESSFUL.equals(status) || JobStatus.FAILED.equals(status)
+            || JobStatus.CANCELLED.equals(status);
+    }
+
+    private static class TrackedJob {
+
+        private final Job job;
+        private final long startNanos;
+        private final CompletableFuture<Job> future;
+        private final Object jfrHandle;
+
+        private TrackedJob(final Job job) {
+            this.job = job;
+            this.startNanos = System.nanoTime();
+            this.future = new CompletableFuture<>();
+            this.jfrHandle = FlightRecorderSupport.beginJobWait();
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import io.github.cloudiator.flexiant.extility.Cluster;
+import io.github.cloudiator.flexiant.extility.Image;
+import io.github.cloudiator.flexiant.extility.Ip;
+import io.github.cloudiator.flexiant.extility.IpType;
+import io.github.cloudiator.flexiant.extility.ListResult;
+import io.github.cloudiator.flexiant.extility.Network;
+import io.github.cloudiator.flexiant.extility.NetworkType;
+import io.github.cloudiator.flexiant.extility.Nic;
+import io.github.cloudiator.flexiant.extility.ProductComponent;
+import io.github.cloudiator.flexiant.extility.ProductOffer;
+import io.github.cloudiator.flexiant.extility.Resource;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import io.github.cloudiator.flexiant.extility.Server;
+import io.github.cloudiator.flexiant.extility.Value;
+import io.github.cloudiator.flexiant.extility.Vdc;
+import io.github.cloudiator.flexiant.extility.VirtualResource;
+
+import javax.annotation.Nullable;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Parses the response of a listResources call from a stream.
+ * <p>
+ * Unlike JAXB, the parser does not build the complete object graph of the resources,
+ * but only reads the fields used by the domain classes and skips everything else.
+ * Elements are matched by their local names, which are the property names of the
+ * extility classes.
+ *
+ * @see StreamingLister
+ */
+final class ListResultParser {
+
+    /**
+     * The resource types the parser supports.
+     */
+    static final Set<ResourceType> SUPPORTED = EnumSet
+        .of(ResourceType.SERVER, ResourceType.IMAGE, ResourceType.NETWORK, ResourceType.CLUSTER,
+            ResourceType.VDC, ResourceType.PRODUCTOFFER);
+
+    private ListResultParser() {
+        throw new AssertionError("Do not instantiate");
+    }
+
+    /**
+     * Parses the listResources response the reader is positioned in front of.
+     *
+     * @param reader       the reader of the response payload.
+     * @param resourceType the type of the listed resources.
+     * @return the list result, whose resources only carry the fields of the domain classes.
+     * @throws XMLStreamException if the response is malformed.
+     */
+    static ListResult parse(final XMLStreamReader reader, final ResourceType resourceType)
+        throws XMLStreamException {
+        checkNotNull(reader);
+        checkArgument(SUPPORTED.contains(resourceType), "Resource type %s is not supported.",
+            resourceType);
+
+        final ListResult listResult = new ListResult();
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT && "listResult"
+                .equals(reader.getLocalName())) {
+                while (nextChild(reader)) {
+                    switch (reader.getLocalName()) {
+                        case "list":
+                            listResult.getList().add(resource(reader, resourceType));
+                            break;
+                        case "totalCount":
+                            final String totalCount = text(reader);
+                            if (totalCount != null) {
+                                listResult.setTotalCount(Long.parseLong(totalCount));
+                            }
+                            break;
+                        default:
+                            skip(reader);
+                    }
+                }
+                return listResult;
+            }
+        }
+        throw new XMLStreamException("Response does not contain a list result.");
+    }
+
+    private static Resource resource(final XMLStreamReader reader,
+        final ResourceType resourceType) throws XMLStreamException {
+        switch (resourceType) {
+            case SERVER:
+                final Server server = new Server();
+                while (nextChild(reader)) {
+                    switch (reader.getLocalName()) {
+                        case "nics":
+                            server.getNics().add(nic(reader));
+                            break;
+                        case "initialUser":
+                            server.setInitialUser(text(reader));
+                            break;
+                        case "initialPassword":
+                            server.setInitialPassword(text(reader));
+                            break;
+                        default:
+                            virtualResourceField(reader, server);
+                    }
+                }
+                return server;
+            case IMAGE:
+                final Image image = new Image();
+                while (nextChild(reader)) {
+                    switch (reader.getLocalName()) {
+                        case "defaultUser":
+                            image.setDefaultUser(text(reader));
+                            break;
+                        case "genPassword":
+                            image.setGenPassword(Boolean.parseBoolean(text(reader)));
+                            break;
+                        default:
+                            virtualResourceField(reader, image);
+                    }
+                }
+                return image;
+            case NETWORK:
+                final Network network = new Network();
+                while (nextChild(reader)) {
+                    virtualResourceField(reader, network);
+                }
+                return network;
+            case VDC:
+                final Vdc vdc = new Vdc();
+                while (nextChild(reader)) {
+                    virtualResourceField(reader, vdc);
+                }
+                return vdc;
+            case CLUSTER:
+                final Cluster cluster = new Cluster();
+                while (nextChild(reader)) {
+                    resourceField(reader, cluster);
+                }
+                return cluster;
+            case PRODUCTOFFER:
+                final ProductOffer productOffer = new ProductOffer();
+                while (nextChild(reader)) {
+                    switch (reader.getLocalName()) {
+                        case "clusters":
+                            final String clusterUUID = text(reader);
+                            if (clusterUUID != null) {
+                                productOffer.getClusters().add(clusterUUID);
+                            }
+                            break;
+                        case "componentConfig":
+                            productOffer.getComponentConfig().add(productComponent(reader));
+                            break;
+                        default:
+                            resourceField(reader, productOffer);
+                    }
+                }
+                return productOffer;
+            default:
+                throw new AssertionError("Unsupported resource type " + resourceType);
+        }
+    }
+
+    private static void resourceField(final XMLStreamReader reader, final Resource resource)
+        throws XMLStreamException {
+        switch (reader.getLocalName()) {
+            case "resourceUUID":
+                resource.setResourceUUID(text(reader));
+                break;
+            case "resourceName":
+                resource.setResourceName(text(reader));
+                break;
+            default:
+                skip(reader);
+        }
+    }
+
+    private static void virtualResourceField(final XMLStreamReader reader,
+        final VirtualResource resource) throws XMLStreamException {
+        switch (reader.getLocalName()) {
+            case "clusterUUID":
+                resource.setClusterUUID(text(reader));
+                break;
+            case "vdcUUID":
+                resource.setVdcUUID(text(reader));
+                break;
+            default:
+                resourceField(reader, resource);
+        }
+    }
+
+    private static Nic nic(final XMLStreamReader reader) throws XMLStreamException {
+        final Nic nic = new Nic();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "networkType":
+                    final String networkType = text(reader);
+                    if (networkType != null) {
+                        nic.setNetworkType(NetworkType.fromValue(networkType));
+                    }
+                    break;
+                case "ipAddresses":
+                    nic.getIpAddresses().add(ip(reader));
+                    break;
+                default:
+                    skip(reader);
+            }
+        }
+        return nic;
+    }
+
+    private static Ip ip(final XMLStreamReader reader) throws XMLStreamException {
+        final Ip ip = new Ip();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "ipAddress":
+                    ip.setIpAddress(text(reader));
+                    break;
+                case "type":
+                    final String type = text(reader);
+                    if (type != null) {
+                        ip.setType(IpType.fromValue(type));
+                    }
+                    break;
+                default:
+                    skip(reader);
+            }
+        }
+        return ip;
+    }
+
+    private static ProductComponent productComponent(final XMLStreamReader reader)
+        throws XMLStreamException {
+        final ProductComponent productComponent = new ProductComponent();
+        while (nextChild(reader)) {
+            if ("productConfiguredValues".equals(reader.getLocalName())) {
+                final Value value = new Value();
+                while (nextChild(reader)) {
+                    switch (reader.getLocalName()) {
+                        case "key":
+                            value.setKey(text(reader));
+                            break;
+                        case "value":
+                            value.setValue(text(reader));
+                            break;
+                        default:
+                            skip(reader);
+                    }
+                }
+                productComponent.getProductConfiguredValues().add(value);
+            } else {
+                skip(reader);
+            }
+        }
+        return productComponent;
+    }
+
+    /**
+     * Moves the reader to the next child of the current element.
+     *
+     * @return true if the reader is positioned at the start of a child, false if it is
+     * positioned at the end of the current element.
+     */
+    private static boolean nextChild(final XMLStreamReader reader) throws XMLStreamException {
+        while (true) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    return true;
+                case XMLStreamConstants.END_ELEMENT:
+                    return false;
+                case XMLStreamConstants.END_DOCUMENT:
+                    throw new XMLStreamException("Unexpected end of response.");
+                default:
+                    // whitespace and comments between elements
+            }
+        }
+    }
+
+    /**
+     * Reads the text of the current element and moves the reader to its end.
+     *
+     * @return the text, null if the element is nil.
+     */
+    @Nullable private static String text(final XMLStreamReader reader)
+        throws XMLStreamException {
+        final boolean nil = "true".equals(
+            reader.getAttributeValue(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "nil"));
+        final String text = reader.getElementText();
+        return nil ? null : text;
+    }
+
+    /**
+     * Skips the current element including all of its children.
+     */
+    private static void skip(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                case XMLStreamConstants.END_DOCUMENT:
+                    throw new XMLStreamException("Unexpected end of response.");
+                default:
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+
+import javax.annotation.Nullable;
+import javax.xml.namespace.QName;
+import javax.xml.soap.SOAPException;
+import javax.xml.soap.SOAPMessage;
+import javax.xml.ws.BindingProvider;
+import javax.xml.ws.handler.Handler;
+import javax.xml.ws.handler.MessageContext;
+import javax.xml.ws.handler.soap.SOAPHandler;
+import javax.xml.ws.handler.soap.SOAPMessageContext;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Handler timestamping the SOAP messages of a call and measuring their size.
+ * <p>
+ * Materializing and serializing a message only for measuring it is expensive, so
+ * messages are only measured while the calling thread is between {@link #begin()} and
+ * {@link #end(boolean)}. Otherwise, the handler only costs a thread local lookup per
+ * message. The size is the one of the serialized envelope, before any transport
+ * compression.
+ *
+ * @see CallTiming
+ */
+class MessageTimingHandler implements SOAPHandler<SOAPMessageContext> {
+
+    private static final ThreadLocal<CallTiming> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Installs the handler on the given port.
+     *
+     * @param port the port.
+     */
+    @SuppressWarnings("rawtypes") static void install(final BindingProvider port) {
+        final List<Handler> handlerChain = port.getBinding().getHandlerChain();
+        handlerChain.add(new MessageTimingHandler());
+        port.getBinding().setHandlerChain(handlerChain);
+    }
+
+    /**
+     * Starts measuring the messages of the current thread. If a measurement is already
+     * running, e.g. started by an outer layer, it is joined.
+     *
+     * @return true if a new measurement was started and must be ended by the caller.
+     */
+    static boolean begin() {
+        if (CURRENT.get() != null) {
+            return false;
+        }
+        CURRENT.set(new CallTiming());
+        return true;
+    }
+
+    /**
+     * @return the running measurement of the current thread, if any.
+     */
+    @Nullable static CallTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Ends the measurement of the current thread.
+     *
+     * @param owner the result of the corresponding {@link #begin()}.
+     * @return the measurement, never null.
+     */
+    static CallTiming end(final boolean owner) {
+        final CallTiming timing = CURRENT.get();
+        if (owner) {
+            CURRENT.remove();
+        }
+        return timing == null ? new CallTiming() : timing;
+    }
+
+    @Override public Set<QName> getHeaders() {
+        return Collections.emptySet();
+    }
+
+    @Override public boolean handleMessage(final SOAPMessageContext context) {
+        record(context);
+        return true;
+    }
+
+    @Override public boolean handleFault(final SOAPMessageContext context) {
+        record(context);
+        return true;
+    }
+
+    @Override public void close(final MessageContext context) {
+        // nothing to clean up
+    }
+
+    private static void record(final SOAPMessageContext context) {
+        final CallTiming timing = CURRENT.get();
+        if (timing == null) {
+            return;
+        }
+        final boolean outbound =
+            Boolean.TRUE.equals(context.get(MessageContext.MESSAGE_OUTBOUND_PROPERTY));
+
+        // materializes the message: marshals the request or reads the response
+        final SOAPMessage message = context.getMessage();
+        final long materialized = System.nanoTime();
+        final long size = sizeOf(message);
+        final long overhead = System.nanoTime() - materialized;
+
+        if (outbound) {
+            timing.outboundNanos = materialized;
+            timing.requestBytes = size;
+            timing.outboundOverheadNanos += overhead;
+        } else {
+            timing.inboundNanos = materialized;
+            timing.responseBytes = size;
+            timing.inboundOverheadNanos += overhead;
+        }
+    }
+
+    private static long sizeOf(final SOAPMessage message) {
+        final CountingOutputStream out = new CountingOutputStream(ByteStreams.nullOutputStream());
+        try {
+            message.writeTo(out);
+        } catch (SOAPException | IOException e) {
+            return -1;
+        }
+        return out.getCount();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import de.uniulm.omi.cloudiator.flexiant.client.api.FlexiantException;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The outcome of a single operation within a bulk operation.
+ * <p>
+ * Either holds the result of the successful operation, or the exception
+ * that caused the operation to fail.
+ *
+ * @param <T> the type of the result.
+ */
+public class OperationResult<T> {
+
+    @Nullable private final T value;
+    @Nullable private final FlexiantException exception;
+
+    private OperationResult(@Nullable final T value, @Nullable final FlexiantException exception) {
+        this.value = value;
+        this.exception = exception;
+    }
+
+    /**
+     * @param value the result of the operation, may be null for operations without result.
+     * @param <T>   the type of the result.
+     * @return a successful result.
+     */
+    public static <T> OperationResult<T> success(@Nullable final T value) {
+        return new OperationResult<>(value, null);
+    }
+
+    /**
+     * @param exception the exception causing the failure.
+     * @param <T>       the type of the result.
+     * @return a failed result.
+     */
+    public static <T> OperationResult<T> failure(final FlexiantException exception) {
+        checkNotNull(exception);
+        return new OperationResult<>(null, exception);
+    }
+
+    /**
+     * Creates a failed result, unwrapping the exceptions of futures.
+     *
+     * @param throwable the throwable causing the failure.
+     * @param <T>       the type of the result.
+     * @return a failed result.
+     */
+    static <T> OperationResult<T> failure(final Throwable throwable) {
+        checkNotNull(throwable);
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+            && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof FlexiantException) {
+            return failure((FlexiantException) cause);
+        }
+        return failure(new FlexiantException("Operation failed with exception.", cause));
+    }
+
+    /**
+     * @return true if the operation was successful.
+     */
+    public boolean isSuccessful() {
+        return exception == null;
+    }
+
+    /**
+     * @return the result of the operation, null if it failed.
+     */
+    @Nullable public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return the exception causing the failure, null if the operation was successful.
+     */
+    @Nullable public FlexiantException getException() {
+        return exception;
+    }
+
+    /**
+     * Returns the result or throws the exception causing the failure.
+     *
+     * @return the result of the operation.
+     * @throws FlexiantException if the operation failed.
+     */
+    @Nullable public T get() throws FlexiantException {
+        if (exception != null) {
+            throw exception;
+        }
+        return value;
+    }
+
+    @Override public String toString() {
+        return isSuccessful() ?
+            String.format("OperationResult{value=%s}", value) :
+            String.format("OperationResult{exception=%s}", exception);
+    }
+}
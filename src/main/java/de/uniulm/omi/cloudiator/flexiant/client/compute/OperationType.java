@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+/**
+ * Categories of operations of the user service, used for applying separate
+ * limits and policies.
+ */
+public enum OperationType {
+
+    /**
+     * Operations reading resources, e.g. listResources.
+     */
+    READ,
+
+    /**
+     * Operations submitting jobs, e.g. createServer or deleteResource.
+     */
+    JOB,
+
+    /**
+     * The server side waiting for jobs.
+     */
+    WAIT;
+
+    /**
+     * Returns the type of the operation with the given name.
+     *
+     * @param operation the name of the operation, e.g. listResources.
+     * @return the type of the operation.
+     */
+    public static OperationType of(final String operation) {
+        if (operation.startsWith("list") || operation.startsWith("get")) {
+            return READ;
+        }
+        if (operation.startsWith("waitFor")) {
+            return WAIT;
+        }
+        return JOB;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.collect.AbstractIterator;
+import de.uniulm.omi.cloudiator.flexiant.client.api.FlexiantException;
+import de.uniulm.omi.cloudiator.flexiant.client.api.UncheckedFlexiantException;
+import io.github.cloudiator.flexiant.extility.ExtilityException;
+import io.github.cloudiator.flexiant.extility.OrderedField;
+import io.github.cloudiator.flexiant.extility.QueryLimit;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import io.github.cloudiator.flexiant.extility.ResultOrder;
+import io.github.cloudiator.flexiant.extility.SearchFilter;
+import io.github.cloudiator.flexiant.extility.UserService;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Iterator over the resources matching a search filter.
+ * <p>
+ * The resources are loaded page by page using a query limit, so that at most
+ * one page is held in memory. The next page is only requested once the current
+ * one is consumed. The pages are ordered by the uuid of the resources, as the api
+ * does not guarantee a stable order otherwise and pages could overlap or miss
+ * resources.
+ *
+ * @param <T> the type of the resources.
+ */
+class PagedResourceIterator<T> extends AbstractIterator<T> {
+
+    private static final String ORDER_FIELD = "resourceUUID";
+
+    private final UserService service;
+    private final SearchFilter searchFilter;
+    private final ResourceType resourceType;
+    private final Class<T> type;
+    private final int pageSize;
+
+    private Iterator<Object> page;
+    private int from;
+    private boolean lastPage;
+
+    PagedResourceIterator(final UserService service, final SearchFilter searchFilter,
+        final ResourceType resourceType, final Class<T> type, final int pageSize) {
+
+        checkNotNull(service);
+        checkNotNull(searchFilter);
+        checkNotNull(resourceType);
+        checkNotNull(type);
+        checkArgument(pageSize > 0, "Page size must be positive.");
+
+        this.service = service;
+        this.searchFilter = searchFilter;
+        this.resourceType = resourceType;
+        this.type = type;
+        this.pageSize = pageSize;
+
+        this.page = Collections.emptyIterator();
+        this.from = 0;
+        this.lastPage = false;
+    }
+
+    @Override protected T computeNext() {
+        while (!page.hasNext()) {
+            if (lastPage) {
+                return endOfData();
+            }
+            fetchNextPage();
+        }
+        return type.cast(page.next());
+    }
+
+    private void fetchNextPage() {
+        QueryLimit queryLimit = new QueryLimit();
+        queryLimit.setFrom(from);
+        queryLimit.setMaxRecords(pageSize);
+        final OrderedField byUUID = new OrderedField();
+        byUUID.setFieldName(ORDER_FIELD);
+        byUUID.setSortOrder(ResultOrder.ASC);
+        queryLimit.getOrderBy().add(byUUID);
+
+        final List<Object> resources;
+        try {
+            resources = service.listResources(searchFilter, queryLimit, resourceType).getList();
+        } catch (ExtilityException e) {
+            throw new UncheckedFlexiantException(new FlexiantException(String
+                .format("Error while retrieving resources of resourceType %s starting at %d.",
+                    resourceType, from), e));
+        }
+
+        from += resources.size();
+        lastPage = resources.size() < pageSize;
+        page = resources.iterator();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import de.uniulm.omi.cloudiator.flexiant.client.api.FlexiantException;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Server;
+import io.github.cloudiator.flexiant.extility.Job;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Handle of a server whose provisioning was submitted.
+ * <p>
+ * The uuid of the server is known as soon as its creation was submitted. Creating
+ * and starting the server continues in the background, callers can either wait
+ * for the server to run or only use its uuid.
+ *
+ * @see FlexiantComputeClient#provisionServer(de.uniulm.omi.cloudiator.flexiant.client.domain.ServerTemplate)
+ */
+public class ProvisioningHandle {
+
+    private final FlexiantComputeClient client;
+    private final Job createJob;
+    private final CompletableFuture<String> running;
+
+    ProvisioningHandle(final FlexiantComputeClient client, final Job createJob,
+        final CompletableFuture<String> running) {
+        checkNotNull(client);
+        checkNotNull(createJob);
+        checkNotNull(running);
+        this.client = client;
+        this.createJob = createJob;
+        this.running = running;
+    }
+
+    /**
+     * @return the uuid of the server.
+     */
+    public String getServerUUID() {
+        return createJob.getItemUUID();
+    }
+
+    /**
+     * @return the job creating the server.
+     */
+    public Job getCreateJob() {
+        return createJob;
+    }
+
+    /**
+     * @return a future completed with the uuid of the server once it is running, or
+     * exceptionally if it could not be created or started.
+     */
+    public CompletableFuture<String> running() {
+        return running;
+    }
+
+    /**
+     * Blocks until the server is running and queries its current state.
+     *
+     * @return the running server.
+     * @throws FlexiantException if the server could not be created, started or queried.
+     */
+    public Server awaitRunning() throws FlexiantException {
+        try {
+            running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlexiantException(
+                String.format("Interrupted while waiting for server %s.", getServerUUID()), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof FlexiantException) {
+                throw (FlexiantException) e.getCause();
+            }
+            throw new FlexiantException(
+                String.format("Could not provision server %s.", getServerUUID()), e.getCause());
+        }
+        final Server server = client.getServer(getServerUUID());
+        checkState(server != null, String.format(
+            "Execution of job %s for server %s was returned as successful, but the server could not be queried.",
+            createJob.getResourceUUID(), getServerUUID()));
+        return server;
+    }
+}
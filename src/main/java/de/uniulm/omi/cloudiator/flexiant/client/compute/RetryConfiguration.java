@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Configuration of retries and the circuit breaker for calls against the api.
+ * <p>
+ * Retries are disabled by default. Once enabled, reads and job waits are retried on
+ * every transient failure, calls submitting jobs only if the request never reached the
+ * server. To create a new instance, use the builder.
+ *
+ * @see FailureClassifier
+ * @see CircuitBreaker
+ * @see RetryConfiguration.RetryConfigurationBuilder
+ */
+public class RetryConfiguration {
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+
+    private RetryConfiguration(final int maxAttempts, final long initialBackoffMillis,
+        final long maxBackoffMillis, final int failureThreshold, final long openDurationMillis) {
+
+        checkArgument(maxAttempts > 0, "Maximum attempts must be positive.");
+        checkArgument(initialBackoffMillis >= 0, "Initial backoff must not be negative.");
+        checkArgument(maxBackoffMillis >= initialBackoffMillis,
+            "Maximum backoff must not be smaller than initial backoff.");
+        checkArgument(failureThreshold >= 0, "Failure threshold must not be negative.");
+        checkArgument(openDurationMillis >= 0, "Open duration must not be negative.");
+
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    /**
+     * @return a configuration using the default values.
+     */
+    public static RetryConfiguration defaults() {
+        return new RetryConfigurationBuilder().build();
+    }
+
+    /**
+     * @return a configuration neither retrying calls nor using a circuit breaker.
+     */
+    public static RetryConfiguration disabled() {
+        return new RetryConfigurationBuilder().maxAttempts(1)
+            .circuitBreaker(0, 0, TimeUnit.SECONDS).build();
+    }
+
+    /**
+     * @return the maximum number of attempts per call, including the first one.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @return the upper bound in milliseconds of the backoff before the first retry.
+     */
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    /**
+     * @return the upper bound in milliseconds of the backoff before any retry.
+     */
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    /**
+     * @return the number of consecutive transient failures opening the circuit breaker, 0 if
+     * no circuit breaker is used.
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * @return the time in milliseconds the circuit breaker stays open.
+     */
+    public long getOpenDurationMillis() {
+        return openDurationMillis;
+    }
+
+    /**
+     * Builder for the retry configuration.
+     *
+     * @see RetryConfiguration
+     */
+    public static class RetryConfigurationBuilder {
+
+        private int maxAttempts;
+        private long initialBackoffMillis;
+        private long maxBackoffMillis;
+        private int failureThreshold;
+        private long openDurationMillis;
+
+        /**
+         * No-args constructor.
+         * <p>
+         * Initializes the builder with the default values: a single attempt, i.e. no
+         * retries, a backoff between 100 ms and 2 s once retries are enabled with
+         * {@link #maxAttempts(int)}, and no circuit breaker.
+         */
+        public RetryConfigurationBuilder() {
+            this.maxAttempts = 1;
+            this.initialBackoffMillis = 100;
+            this.maxBackoffMillis = 2000;
+            this.failureThreshold = 0;
+            this.openDurationMillis = 30000;
+        }
+
+        /**
+         * Sets the maximum number of attempts per call.
+         *
+         * @param maxAttempts the maximum attempts including the first one, 1 disables retries.
+         * @return fluent interface
+         */
+        public RetryConfigurationBuilder maxAttempts(final int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the backoff between attempts. The upper bound doubles with every retry,
+         * up to the maximum, and the actual backoff is chosen randomly below it.
+         *
+         * @param initial the upper bound of the first backoff.
+         * @param max     the upper bound of all backoffs.
+         * @param unit    the unit of the backoffs.
+         * @return fluent interface
+         */
+        public RetryConfigurationBuilder backoff(final long initial, final long max,
+            final TimeUnit unit) {
+            checkNotNull(unit);
+            this.initialBackoffMillis = unit.toMillis(initial);
+            this.maxBackoffMillis = unit.toMillis(max);
+            return this;
+        }
+
+        /**
+         * Configures the circuit breaker of the client. By default, no breaker is used.
+         * <p>
+         * Every client has its own breaker, it is not shared with other clients of the
+         * same endpoint.
+         *
+         * @param failureThreshold the number of consecutive transient failures opening the
+         *                         breaker, 0 disables the breaker.
+         * @param openDuration     the time the breaker stays open.
+         * @param unit             the unit of the open duration.
+         * @return fluent interface
+         */
+        public RetryConfigurationBuilder circuitBreaker(final int failureThreshold,
+            final long openDuration, final TimeUnit unit) {
+            checkNotNull(unit);
+            this.failureThreshold = failureThreshold;
+            this.openDurationMillis = unit.toMillis(openDuration);
+            return this;
+        }
+
+        public RetryConfiguration build() {
+            return new RetryConfiguration(this.maxAttempts, this.initialBackoffMillis,
+                this.maxBackoffMillis, this.failureThreshold, this.openDurationMillis);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import de.uniulm.omi.cloudiator.flexiant.client.api.FlexiantException;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Server;
+
+import javax.annotation.Nullable;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Cache for the state of servers.
+ * <p>
+ * Reads are served from the cache as long as the cached state is not older
+ * than the configured staleness bound. The cached lists of servers are kept as
+ * {@link ServerInventory}, indexed by ip. Operations changing a server update or
+ * invalidate the affected entries, so that the next read reflects the change.
+ * <p>
+ * Every change increments a generation counter. Loads which were started before a
+ * change do not populate the cache, so that they can not overwrite it with a state
+ * read before the change.
+ */
+public class ServerCache {
+
+    private final long stalenessMillis;
+    @Nullable private final Cache<String, Server> servers;
+    @Nullable private final Cache<Optional<String>, ServerInventory> lists;
+    private final AtomicLong generation;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param stalenessMillis the maximum age of a cached server state, 0 disables the cache.
+     */
+    public ServerCache(final long stalenessMillis) {
+        checkArgument(stalenessMillis >= 0, "Staleness must not be negative.");
+        this.stalenessMillis = stalenessMillis;
+        this.generation = new AtomicLong();
+        if (stalenessMillis > 0) {
+            this.servers = CacheBuilder.newBuilder()
+                .expireAfterWrite(stalenessMillis, TimeUnit.MILLISECONDS).recordStats().build();
+            this.lists = CacheBuilder.newBuilder()
+                .expireAfterWrite(stalenessMillis, TimeUnit.MILLISECONDS).recordStats().build();
+        } else {
+            this.servers = null;
+            this.lists = null;
+        }
+    }
+
+    /**
+     * @return true if server states are cached.
+     */
+    public boolean isEnabled() {
+        return stalenessMillis > 0;
+    }
+
+    /**
+     * @return the maximum age of a cached server state in milliseconds.
+     */
+    public long getStalenessMillis() {
+        return stalenessMillis;
+    }
+
+    /**
+     * Returns the cached servers of the given location, loading them on a miss.
+     *
+     * @param locationUUID optional location of the servers.
+     * @param loader       loads the servers on a cache miss.
+     * @return the immutable set of servers.
+     * @throws FlexiantException if the loader fails.
+     */
+    Set<Server> getServers(@Nullable final String locationUUID,
+        final ResourceLoader<Set<Server>> loader) throws FlexiantException {
+        if (!isEnabled()) {
+            return loader.load();
+        }
+        return getInventory(locationUUID, loader).getServers();
+    }
+
+    /**
+     * Returns the cached inventory of the servers of the given location, loading
+     * it on a miss. If the cache is disabled, the inventory is always loaded.
+     *
+     * @param locationUUID optional location of the servers.
+     * @param loader       loads the servers on a cache miss.
+     * @return the inventory of the servers.
+     * @throws FlexiantException if the loader fails.
+     */
+    ServerInventory getInventory(@Nullable final String locationUUID,
+        final ResourceLoader<Set<Server>> loader) throws FlexiantException {
+        if (!isEnabled()) {
+            return new ServerInventory(loader.load());
+        }
+        final Optional<String> key = Optional.ofNullable(locationUUID);
+        final AtomicLong started = new AtomicLong(-1);
+        final ServerInventory inventory;
+        try {
+            inventory = lists.get(key, () -> {
+                started.set(generation.get());
+                final ServerInventory loaded = new ServerInventory(loader.load());
+                for (Server server : loaded.getServers()) {
+                    putIfCurrent(servers, server.getId(), server, started.get());
+                }
+                return loaded;
+            });
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+        // the list was loaded by this call, but the servers changed in the meantime
+        if (started.get() >= 0 && generation.get() != started.get()) {
+            lists.asMap().remove(key, inventory);
+        }
+        return inventory;
+    }
+
+    /**
+     * Returns the cached server, loading it on a miss.
+     *
+     * @param serverUUID the uuid of the server.
+     * @param loader     loads the server on a cache miss, may return null.
+     * @return the server or null if it does not exist.
+     * @throws FlexiantException if the loader fails.
+     */
+    @Nullable Server getServer(final String serverUUID, final ResourceLoader<Server> loader)
+        throws FlexiantException {
+        if (!isEnabled()) {
+            return loader.load();
+        }
+        final Server cached = servers.getIfPresent(serverUUID);
+        if (cached != null) {
+            return cached;
+        }
+        final long started = generation.get();
+        final Server loaded = loader.load();
+        if (loaded != null) {
+            putIfCurrent(servers, serverUUID, loaded, started);
+        }
+        return loaded;
+    }
+
+    /**
+     * Stores the current state of the given server, e.g. after it was created.
+     * <p>
+     * The lists of servers are invalidated, as they do not contain the server yet.
+     *
+     * @param server the server.
+     */
+    void update(final Server server) {
+        checkNotNull(server);
+        if (isEnabled()) {
+            generation.incrementAndGet();
+            servers.put(server.getId(), server);
+            lists.invalidateAll();
+        }
+    }
+
+    /**
+     * Invalidates the cached state of the given server, e.g. after its status
+     * was changed or it was deleted.
+     *
+     * @param serverUUID the uuid of the server.
+     */
+    public void invalidate(final String serverUUID) {
+        checkNotNull(serverUUID);
+        if (isEnabled()) {
+            generation.incrementAndGet();
+            servers.invalidate(serverUUID);
+            lists.invalidateAll();
+        }
+    }
+
+    /**
+     * Invalidates all cached server states.
+     */
+    public void invalidateAll() {
+        if (isEnabled()) {
+            generation.incrementAndGet();
+            servers.invalidateAll();
+            lists.invalidateAll();
+        }
+    }
+
+    /**
+     * @return the hit and miss statistics of the cache.
+     */
+    public CacheStats getStats() {
+        if (!isEnabled()) {
+            return new CacheStats(0, 0, 0, 0, 0, 0);
+        }
+        return servers.stats().plus(lists.stats());
+    }
+
+    /**
+     * Caches the given value, unless the servers changed since the load of the value started.
+     */
+    private <K, V> void putIfCurrent(final Cache<K, V> cache, final K key, final V value,
+        final long started) {
+        if (generation.get() != started) {
+            return;
+        }
+        cache.put(key, value);
+        // a change racing with the put increments the generation before invalidating
+        if (generation.get() != started) {
+            cache.asMap().remove(key, value);
+        }
+    }
+
+    private static FlexiantException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof FlexiantException) {
+            return (FlexiantException) e.getCause();
+        }
+        return new FlexiantException("Error while loading cached servers", e.getCause());
+    }
+}
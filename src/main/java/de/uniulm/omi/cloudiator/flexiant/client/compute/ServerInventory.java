@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.collect.ImmutableSet;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Server;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An immutable set of servers, indexed by their ip addresses.
+ * <p>
+ * The index is built once when the inventory is created, so looking up a
+ * server by its ip does not need to walk the nics of all servers.
+ */
+class ServerInventory {
+
+    private final Set<Server> servers;
+    private final Map<String, Server> serversByIp;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param servers the servers of the inventory.
+     */
+    ServerInventory(final Set<Server> servers) {
+        checkNotNull(servers);
+
+        this.servers = ImmutableSet.copyOf(servers);
+
+        final Map<String, Server> byIp = new HashMap<>(servers.size() * 2);
+        for (Server server : this.servers) {
+            final String publicIp = server.getPublicIpAddress();
+            if (publicIp != null) {
+                byIp.putIfAbsent(publicIp, server);
+            }
+            final String privateIp = server.getPrivateIpAddress();
+            if (privateIp != null) {
+                byIp.putIfAbsent(privateIp, server);
+            }
+        }
+        this.serversByIp = Collections.unmodifiableMap(byIp);
+    }
+
+    /**
+     * @return the immutable set of servers.
+     */
+    Set<Server> getServers() {
+        return servers;
+    }
+
+    /**
+     * @param ip the public or private ip of the server.
+     * @return the server having the given ip or null.
+     */
+    @Nullable Server getServerByIp(final String ip) {
+        checkNotNull(ip);
+        return serversByIp.get(ip);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.reflect.AbstractInvocationHandler;
+import de.uniulm.omi.cloudiator.flexiant.client.metrics.SoapPhaseListener;
+import de.uniulm.omi.cloudiator.flexiant.client.metrics.SoapPhases;
+import io.github.cloudiator.flexiant.extility.UserService;
+
+import javax.xml.ws.BindingProvider;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Splits the calls of a port into their marshal, network and unmarshal phases and
+ * reports them to a {@link SoapPhaseListener}.
+ * <p>
+ * The recorder wraps a single port, so that the time waiting for a port of the pool is
+ * not counted. The phase boundaries are taken by the {@link MessageTimingHandler},
+ * which must be installed on the port.
+ */
+class SoapPhaseRecorder {
+
+    private final SoapPhaseListener listener;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param listener the listener to report to.
+     */
+    SoapPhaseRecorder(final SoapPhaseListener listener) {
+        checkNotNull(listener);
+        this.listener = listener;
+    }
+
+    /**
+     * Wraps the given port. The returned port still implements {@link BindingProvider}.
+     *
+     * @param port the port to wrap.
+     * @return the recording port.
+     */
+    UserService recording(final UserService port) {
+        checkNotNull(port);
+        return (UserService) Proxy.newProxyInstance(UserService.class.getClassLoader(),
+            new Class<?>[] {UserService.class, BindingProvider.class},
+            new RecordingInvocationHandler(port));
+    }
+
+    private class RecordingInvocationHandler extends AbstractInvocationHandler {
+
+        private final UserService delegate;
+
+        private RecordingInvocationHandler(final UserService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override protected Object handleInvocation(Object proxy, Method method, Object[] args)
+            throws Throwable {
+            if (method.getDeclaringClass() != UserService.class) {
+                return invoke(method, args);
+            }
+
+            final long start = System.nanoTime();
+            final boolean owner = MessageTimingHandler.begin();
+            boolean successful = false;
+            try {
+                final Object result = invoke(method, args);
+                successful = true;
+                return result;
+            } finally {
+                final long end = System.nanoTime();
+                final CallTiming timing = MessageTimingHandler.end(owner);
+                if (successful && timing.isComplete()) {
+                    listener.onPhases(new SoapPhases(method.getName(),
+                        timing.outboundNanos - start,
+                        timing.inboundNanos - timing.outboundNanos - timing.outboundOverheadNanos,
+                        end - timing.inboundNanos - timing.inboundOverheadNanos,
+                        timing.requestBytes, timing.responseBytes));
+                }
+            }
+        }
+
+        private Object invoke(final Method method, final Object[] args) throws Throwable {
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @Override public String toString() {
+            return String.format("SoapPhaseRecorder{listener=%s, delegate=%s}", listener,
+                delegate);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.reflect.AbstractInvocationHandler;
+import io.github.cloudiator.flexiant.extility.ExtilityException;
+import io.github.cloudiator.flexiant.extility.ListResources;
+import io.github.cloudiator.flexiant.extility.ListResult;
+import io.github.cloudiator.flexiant.extility.ObjectFactory;
+import io.github.cloudiator.flexiant.extility.QueryLimit;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import io.github.cloudiator.flexiant.extility.SearchFilter;
+import io.github.cloudiator.flexiant.extility.UserService;
+import org.w3c.dom.Node;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.util.JAXBSource;
+import javax.xml.soap.Detail;
+import javax.xml.soap.SOAPFault;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stax.StAXSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.ws.BindingProvider;
+import javax.xml.ws.Dispatch;
+import javax.xml.ws.WebServiceException;
+import javax.xml.ws.soap.SOAPFaultException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Executes the listResources calls of a port on a payload dispatch and parses the
+ * responses with the {@link ListResultParser} instead of JAXB.
+ * <p>
+ * The resources returned only carry the fields used by the domain classes, which
+ * saves most of the allocations and parse time of large listings. Resource types not
+ * supported by the parser and all other operations are executed on the port. Faults
+ * are thrown as the declared {@link ExtilityException}, like the port does, only a
+ * response the parser can not read is requested again on the port.
+ */
+class StreamingLister {
+
+    private static final Logger LOGGER = Logger.getLogger(StreamingLister.class.getName());
+
+    private static final String LIST_RESOURCES = "listResources";
+
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    private final Dispatch<Source> dispatch;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param dispatch the payload dispatch, configured like the port.
+     */
+    StreamingLister(final Dispatch<Source> dispatch) {
+        checkNotNull(dispatch);
+        this.dispatch = dispatch;
+    }
+
+    /**
+     * Wraps the given port. The returned port still implements {@link BindingProvider}.
+     *
+     * @param port the port to wrap.
+     * @return the streaming port.
+     */
+    UserService streaming(final UserService port) {
+        checkNotNull(port);
+        return (UserService) Proxy.newProxyInstance(UserService.class.getClassLoader(),
+            new Class<?>[] {UserService.class, BindingProvider.class},
+            new StreamingInvocationHandler(port));
+    }
+
+    private ListResult listResources(final SearchFilter searchFilter,
+        final QueryLimit queryLimit, final ResourceType resourceType)
+        throws XMLStreamException {
+
+        final ListResources request = new ListResources();
+        request.setSearchFilter(searchFilter);
+        request.setQueryLimit(queryLimit);
+        request.setResourceType(resourceType);
+
+        final Source response;
+        try {
+            response = dispatch.invoke(
+                new JAXBSource(Context.INSTANCE, new ObjectFactory().createListResources(request)));
+        } catch (JAXBException e) {
+            throw new WebServiceException("Could not marshal listResources request.", e);
+        }
+
+        final XMLStreamReader reader = reader(response);
+        try {
+            return ListResultParser.parse(reader, resourceType);
+        } catch (IllegalArgumentException e) {
+            // e.g. a value not matching its enum or number type
+            throw new XMLStreamException(e);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static XMLStreamReader reader(final Source source) throws XMLStreamException {
+        if (source instanceof StAXSource) {
+            return ((StAXSource) source).getXMLStreamReader();
+        }
+        if (source instanceof StreamSource) {
+            return INPUT_FACTORY.createXMLStreamReader(source);
+        }
+        // e.g. a DOM source, which can not be read as a stream directly
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            TransformerFactory.newInstance().newTransformer()
+                .transform(source, new StreamResult(out));
+        } catch (TransformerException e) {
+            throw new XMLStreamException("Could not read response.", e);
+        }
+        return INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    /**
+     * Maps a fault to the declared exception, the way the port does: the fault string
+     * becomes the message and the first detail entry is unmarshalled to the fault info.
+     *
+     * @param fault the fault.
+     * @return the declared exception.
+     */
+    private static ExtilityException declaredException(final SOAPFaultException fault) {
+        final SOAPFault soapFault = fault.getFault();
+        final Detail detail = soapFault == null ? null : soapFault.getDetail();
+        Object faultInfo = null;
+        if (detail != null) {
+            final Iterator<?> entries = detail.getDetailEntries();
+            if (entries.hasNext()) {
+                try {
+                    final Unmarshaller unmarshaller = Context.INSTANCE.createUnmarshaller();
+                    faultInfo = unmarshaller.unmarshal((Node) entries.next(), Context.FAULT_INFO)
+                        .getValue();
+                } catch (JAXBException e) {
+                    LOGGER.log(Level.FINE, "Could not unmarshal the detail of a fault.", e);
+                }
+            }
+        }
+        try {
+            return Context.EXCEPTION.newInstance(fault.getMessage(), faultInfo);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Lazily creates the JAXB context, which is only needed for marshalling requests and
+     * unmarshalling faults.
+     */
+    private static class Context {
+
+        private static final Class<?> FAULT_INFO;
+        private static final Constructor<ExtilityException> EXCEPTION;
+        private static final JAXBContext INSTANCE;
+
+        static {
+            try {
+                // the generated exception exposes the type of its fault bean
+                FAULT_INFO = ExtilityException.class.getMethod("getFaultInfo").getReturnType();
+                EXCEPTION = ExtilityException.class.getConstructor(String.class, FAULT_INFO);
+                INSTANCE = JAXBContext.newInstance(ObjectFactory.class, FAULT_INFO);
+            } catch (JAXBException | ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+
+    private class StreamingInvocationHandler extends AbstractInvocationHandler {
+
+        private final UserService delegate;
+
+        private StreamingInvocationHandler(final UserService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override protected Object handleInvocation(Object proxy, Method method, Object[] args)
+            throws Throwable {
+            if (LIST_RESOURCES.equals(method.getName()) && args.length == 3
+                && ListResultParser.SUPPORTED.contains(args[2])) {
+                try {
+                    return listResources((SearchFilter) args[0], (QueryLimit) args[1],
+                        (ResourceType) args[2]);
+                } catch (SOAPFaultException e) {
+                    throw declaredException(e);
+                } catch (XMLStreamException e) {
+                    LOGGER.log(Level.WARNING, String
+                        .format("Could not parse listResources response for %s, "
+                            + "repeating the call on the port.", args[2]), e);
+                }
+            }
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @Override public String toString() {
+            return String.format("StreamingLister{delegate=%s}", delegate);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import javax.xml.ws.BindingProvider;
+import javax.xml.ws.handler.MessageContext;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Configuration of the http transport used for the soap calls.
+ * <p>
+ * To create a new instance, use the builder. The configuration only affects the ports
+ * of the client it is passed to. The connection pool of {@link java.net.HttpURLConnection}
+ * is shared by the whole jvm, see {@link #configureConnectionPool(int)}.
+ *
+ * @see TransportConfiguration.TransportConfigurationBuilder
+ */
+public class TransportConfiguration {
+
+    private static final String[] CONNECT_TIMEOUT_PROPERTIES =
+        {"com.sun.xml.ws.connect.timeout", "com.sun.xml.internal.ws.connect.timeout"};
+    private static final String[] REQUEST_TIMEOUT_PROPERTIES =
+        {"com.sun.xml.ws.request.timeout", "com.sun.xml.internal.ws.request.timeout"};
+    private static final String GZIP = "gzip";
+
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final boolean gzipRequests;
+    private final boolean gzipResponses;
+
+    private TransportConfiguration(final int connectTimeoutMillis, final int readTimeoutMillis,
+        final boolean gzipRequests, final boolean gzipResponses) {
+
+        checkArgument(connectTimeoutMillis >= 0, "Connect timeout must not be negative.");
+        checkArgument(readTimeoutMillis >= 0, "Read timeout must not be negative.");
+
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.gzipRequests = gzipRequests;
+        this.gzipResponses = gzipResponses;
+    }
+
+    /**
+     * @return a configuration using the default values.
+     */
+    public static TransportConfiguration defaults() {
+        return new TransportConfigurationBuilder().build();
+    }
+
+    /**
+     * @return the connect timeout in milliseconds, 0 means no timeout.
+     */
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    /**
+     * @return the read timeout in milliseconds, 0 means no timeout.
+     */
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    /**
+     * @return true if request bodies are compressed.
+     */
+    public boolean isGzipRequests() {
+        return gzipRequests;
+    }
+
+    /**
+     * @return true if compressed responses are accepted.
+     */
+    public boolean isGzipResponses() {
+        return gzipResponses;
+    }
+
+    /**
+     * Configures the number of idle persistent connections the jvm keeps per host.
+     * <p>
+     * The connection pool of {@link java.net.HttpURLConnection} is configured by the
+     * system properties http.keepAlive and http.maxConnections. They are jvm wide, affect
+     * every library of the process and are only read when the first http connection is
+     * opened. Therefore, no client sets them, applications which want to keep more
+     * connections than the jvm default of 5 have to opt in explicitly at startup, or pass
+     * the properties on the command line. The value should match the pool size.
+     *
+     * @param maxConnections the number of connections kept per host.
+     */
+    public static void configureConnectionPool(final int maxConnections) {
+        checkArgument(maxConnections > 0, "Max connections must be positive.");
+        System.setProperty("http.keepAlive", "true");
+        System.setProperty("http.maxConnections", String.valueOf(maxConnections));
+    }
+
+    /**
+     * Applies the per port settings of this configuration to the given port.
+     *
+     * @param bindingProvider the port.
+     */
+    void applyTo(final BindingProvider bindingProvider) {
+        checkNotNull(bindingProvider);
+
+        final Map<String, Object> requestContext = bindingProvider.getRequestContext();
+        if (connectTimeoutMillis > 0) {
+            for (String property : CONNECT_TIMEOUT_PROPERTIES) {
+                requestContext.put(property, connectTimeoutMillis);
+            }
+        }
+        if (readTimeoutMillis > 0) {
+            for (String property : REQUEST_TIMEOUT_PROPERTIES) {
+                requestContext.put(property, readTimeoutMillis);
+            }
+        }
+
+        final Map<String, List<String>> headers = new HashMap<>();
+        if (gzipRequests) {
+            headers.put("Content-Encoding", Collections.singletonList(GZIP));
+        }
+        if (gzipResponses) {
+            headers.put("Accept-Encoding", Collections.singletonList(GZIP));
+        }
+        if (!headers.isEmpty()) {
+            requestContext.put(MessageContext.HTTP_REQUEST_HEADERS, headers);
+        }
+    }
+
+    /**
+     * Builder for the transport configuration.
+     *
+     * @see TransportConfiguration
+     */
+    public static class TransportConfigurationBuilder {
+
+        private int connectTimeoutMillis;
+        private int readTimeoutMillis;
+        private boolean gzipRequests;
+        private boolean gzipResponses;
+
+        /**
+         * No-args constructor.
+         * <p>
+         * Initializes the builder with the default values.
+         */
+        public TransportConfigurationBuilder() {
+            this.connectTimeoutMillis = 0;
+            this.readTimeoutMillis = 0;
+            this.gzipRequests = false;
+            this.gzipResponses = false;
+        }
+
+        /**
+         * Sets the timeout for establishing a connection.
+         *
+         * @param timeout the timeout, 0 means no timeout.
+         * @param unit    the unit of the timeout.
+         * @return fluent interface
+         */
+        public TransportConfigurationBuilder connectTimeout(final long timeout,
+            final TimeUnit unit) {
+            checkNotNull(unit);
+            this.connectTimeoutMillis = Math.toIntExact(unit.toMillis(timeout));
+            return this;
+        }
+
+        /**
+         * Sets the timeout for waiting on the response of a call.
+         *
+         * @param timeout the timeout, 0 means no timeout.
+         * @param unit    the unit of the timeout.
+         * @return fluent interface
+         */
+        public TransportConfigurationBuilder readTimeout(final long timeout,
+            final TimeUnit unit) {
+            checkNotNull(unit);
+            this.readTimeoutMillis = Math.toIntExact(unit.toMillis(timeout));
+            return this;
+        }
+
+        /**
+         * Sets whether request bodies are compressed. The endpoint has to support
+         * gzip encoded requests.
+         *
+         * @param gzipRequests true to compress requests.
+         * @return fluent interface
+         */
+        public TransportConfigurationBuilder gzipRequests(final boolean gzipRequests) {
+            this.gzipRequests = gzipRequests;
+            return this;
+        }
+
+        /**
+         * Sets whether compressed responses are accepted.
+         *
+         * @param gzipResponses true to accept compressed responses.
+         * @return fluent interface
+         */
+        public TransportConfigurationBuilder gzipResponses(final boolean gzipResponses) {
+            this.gzipResponses = gzipResponses;
+            return this;
+        }
+
+        public TransportConfiguration build() {
+            return new TransportConfiguration(this.connectTimeoutMillis, this.readTimeoutMillis,
+                this.gzipRequests, this.gzipResponses);
+        }
+    }
+}
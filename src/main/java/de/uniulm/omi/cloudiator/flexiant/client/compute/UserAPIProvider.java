@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import io.github.cloudiator.flexiant.extility.UserAPI;
+
+import javax.xml.namespace.QName;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Provides the user api service objects.
+ * <p>
+ * Parsing the WSDL and building the service model, including the JAXB context,
+ * is expensive. Therefore, a single service object is created per WSDL location and
+ * shared by all clients of the JVM. Ports created from it are independent of each other.
+ */
+final class UserAPIProvider {
+
+    /**
+     * Classpath location of the WSDL bundled by the build.
+     */
+    static final String BUNDLED_WSDL = "/wsdl/UserAPI.wsdl";
+
+    private static final QName SERVICE_NAME =
+        new QName("http://extility.flexiant.net", "UserAPI");
+
+    /**
+     * Name of the user service port, e.g. for creating dispatches.
+     */
+    static final QName PORT_NAME = new QName("http://extility.flexiant.net", "UserServicePort");
+
+    private static final ConcurrentMap<String, UserAPI> SERVICES = new ConcurrentHashMap<>();
+
+    private UserAPIProvider() {
+        throw new AssertionError("Do not instantiate");
+    }
+
+    /**
+     * Returns the service described by the WSDL at the given location.
+     *
+     * @param wsdlLocation the location of the WSDL.
+     * @return the shared service.
+     */
+    static UserAPI forWsdl(final URL wsdlLocation) {
+        checkNotNull(wsdlLocation);
+        return SERVICES.computeIfAbsent(wsdlLocation.toExternalForm(),
+            s -> new UserAPI(wsdlLocation, SERVICE_NAME));
+    }
+
+    /**
+     * Returns the service described by the WSDL bundled within the client jar.
+     *
+     * @return the shared service.
+     * @throws IllegalStateException if the client jar does not contain a WSDL.
+     */
+    static UserAPI bundled() {
+        final URL wsdlLocation = UserAPIProvider.class.getResource(BUNDLED_WSDL);
+        checkState(wsdlLocation != null,
+            String.format("Could not find bundled WSDL %s on classpath.", BUNDLED_WSDL));
+        return forWsdl(wsdlLocation);
+    }
+}
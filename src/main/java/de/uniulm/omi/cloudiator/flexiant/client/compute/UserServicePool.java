@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.reflect.AbstractInvocationHandler;
+import com.google.common.reflect.Reflection;
+import io.github.cloudiator.flexiant.extility.UserService;
+
+import javax.xml.ws.ProtocolException;
+import javax.xml.ws.WebServiceException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A bounded pool of authenticated user service ports.
+ * <p>
+ * JAX-WS ports are not thread safe, as they share their request context. The pool
+ * hands out each port to at most one caller at a time. Ports are created lazily,
+ * up to the configured size, and are reused afterwards. A port whose call failed
+ * below the SOAP protocol, e.g. with a broken connection, is discarded instead.
+ */
+public class UserServicePool {
+
+    private final Supplier<UserService> portFactory;
+    private final ConcurrentLinkedQueue<UserService> idle;
+    private final Set<UserService> borrowed;
+    private final Semaphore permits;
+    private final long borrowTimeoutMillis;
+    private final UserService pooledService;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param portFactory         factory creating new authenticated ports.
+     * @param size                the maximum number of ports.
+     * @param borrowTimeoutMillis the maximum time to wait for a port, 0 waits forever.
+     */
+    public UserServicePool(final Supplier<UserService> portFactory, final int size,
+        final long borrowTimeoutMillis) {
+
+        checkNotNull(portFactory);
+        checkArgument(size > 0);
+        checkArgument(borrowTimeoutMillis >= 0);
+
+        this.portFactory = portFactory;
+        this.idle = new ConcurrentLinkedQueue<>();
+        this.borrowed =
+            Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        this.permits = new Semaphore(size, true);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.pooledService = Reflection.newProxy(UserService.class, new PooledInvocationHandler());
+    }
+
+    /**
+     * Borrows a port from the pool, blocking until one is available.
+     * <p>
+     * The port must be given back using {@link #release(UserService)}, or
+     * {@link #discard(UserService)} if it is broken.
+     *
+     * @return a port exclusively owned by the caller.
+     * @throws WebServiceException if no port got available in time.
+     */
+    public UserService borrow() {
+        try {
+            if (borrowTimeoutMillis == 0) {
+                permits.acquire();
+            } else if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new WebServiceException(String
+                    .format("Timed out after %d ms waiting for a free service port.",
+                        borrowTimeoutMillis));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebServiceException("Interrupted while waiting for a free service port.", e);
+        }
+
+        UserService port = idle.poll();
+        if (port == null) {
+            try {
+                port = portFactory.get();
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+        borrowed.add(port);
+        return port;
+    }
+
+    /**
+     * Returns a previously borrowed port to the pool.
+     *
+     * @param port the port to return.
+     * @throws IllegalArgumentException if the port is not borrowed from this pool.
+     */
+    public void release(final UserService port) {
+        giveBack(port);
+        idle.offer(port);
+        permits.release();
+    }
+
+    /**
+     * Gives back a previously borrowed port without reusing it, e.g. because its
+     * connection broke. The pool creates a new port on demand.
+     *
+     * @param port the port to discard.
+     * @throws IllegalArgumentException if the port is not borrowed from this pool.
+     */
+    public void discard(final UserService port) {
+        giveBack(port);
+        permits.release();
+    }
+
+    private void giveBack(final UserService port) {
+        checkNotNull(port);
+        checkArgument(borrowed.remove(port),
+            "The port was not borrowed from this pool or was already given back.");
+    }
+
+    /**
+     * Returns a service which borrows a port for every single operation.
+     * <p>
+     * The returned service can safely be shared between threads. It is a proxy and
+     * no {@link javax.xml.ws.BindingProvider}, the request context of the ports can
+     * only be configured by the port factory.
+     *
+     * @return the pooled service.
+     */
+    public UserService getService() {
+        return pooledService;
+    }
+
+    private class PooledInvocationHandler extends AbstractInvocationHandler {
+
+        @Override protected Object handleInvocation(Object proxy, Method method, Object[] args)
+            throws Throwable {
+            final UserService port = borrow();
+            final Object result;
+            try {
+                result = method.invoke(port, args);
+            } catch (InvocationTargetException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof WebServiceException
+                    && !(cause instanceof ProtocolException)) {
+                    // the failure happened on the transport, the connection may be broken
+                    discard(port);
+                } else {
+                    release(port);
+                }
+                throw cause;
+            } catch (Throwable t) {
+                release(port);
+                throw t;
+            }
+            release(port);
+            return result;
+        }
+
+        @Override public String toString() {
+            return String.format("UserServicePool{available=%d}", permits.availablePermits());
+        }
+    }
+}
@@ -35,14 +35,23 @@ import java.util.stream.Collectors;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+/**
+ * Snapshot of a combination of a machine and a disk product offer in a location.
+ * <p>
+ * The cores, ram and disk space are read from the offers once, the offers themselves
+ * are not retained.
+ */
 public class Hardware implements ResourceInLocation {
 
     private static final String DISK_KEY = "size";
     private static final String RAM_KEY = "ram";
     private static final String CPU_KEY = "cpu";
 
-    private final ProductOffer disk;
-    private final ProductOffer machine;
+    private final String machineUUID;
+    private final String diskUUID;
+    private final int cores;
+    private final int ram;
+    private final float diskSpace;
     private final String locationUUID;
 
     public static Hardware from(final ProductOffer machine, final ProductOffer disk,
@@ -50,6 +59,11 @@ public class Hardware implements ResourceInLocation {
         return new Hardware(machine, disk, locationUUID);
     }
 
+    public static Hardware from(final String machineUUID, final String diskUUID,
+        final int cores, final int ram, final float diskSpace, final String locationUUID) {
+        return new Hardware(machineUUID, diskUUID, cores, ram, diskSpace, locationUUID);
+    }
+
     public static Set<Hardware> from(final List<ProductOffer> offers,
         final List<Cluster> availableClusters) {
 
@@ -97,10 +111,9 @@ public class Hardware implements ResourceInLocation {
                     diskOfferClusters = diskOffer.getClusters();
                 }
 
-                //intersect them
-                machineOfferClusters.retainAll(diskOfferClusters);
-                //assign to new variable
+                //intersect them, on a copy, as the offers may be shared
                 List<String> clustersForBoth = new ArrayList<>(machineOfferClusters);
+                clustersForBoth.retainAll(diskOfferClusters);
 
                 hardware.addAll(clustersForBoth.stream()
                     .map(locationUUID -> Hardware.from(machineOffer, diskOffer, locationUUID))
@@ -119,24 +132,43 @@ public class Hardware implements ResourceInLocation {
         checkNotNull(locationUUID);
         checkArgument(!locationUUID.isEmpty());
 
-        checkArgument(this.searchForValueInProductOffer(CPU_KEY, machine) != null,
-            "Machine Offer does not contain cpu key.");
-        checkArgument(this.searchForValueInProductOffer(RAM_KEY, machine) != null,
-            "Machine Offer does not contain ram key.");
-        checkArgument(this.searchForValueInProductOffer(DISK_KEY, disk) != null,
-            "Disk Offer does not contain disk key.");
+        final String cpuValue = searchForValueInProductOffer(CPU_KEY, machine);
+        checkArgument(cpuValue != null, "Machine Offer does not contain cpu key.");
+        final String ramValue = searchForValueInProductOffer(RAM_KEY, machine);
+        checkArgument(ramValue != null, "Machine Offer does not contain ram key.");
+        final String diskValue = searchForValueInProductOffer(DISK_KEY, disk);
+        checkArgument(diskValue != null, "Disk Offer does not contain disk key.");
 
         checkArgument(
             machine.getClusters().isEmpty() || machine.getClusters().contains(locationUUID));
         checkArgument(disk.getClusters().isEmpty() || disk.getClusters().contains(locationUUID));
 
-        this.machine = machine;
-        this.disk = disk;
+        this.machineUUID = machine.getResourceUUID();
+        this.diskUUID = disk.getResourceUUID();
+        this.cores = Integer.parseInt(cpuValue);
+        this.ram = Integer.parseInt(ramValue);
+        this.diskSpace = Float.parseFloat(diskValue);
+        this.locationUUID = locationUUID;
+    }
+
+    private Hardware(final String machineUUID, final String diskUUID, final int cores,
+        final int ram, final float diskSpace, final String locationUUID) {
+
+        checkNotNull(machineUUID);
+        checkNotNull(diskUUID);
+        checkNotNull(locationUUID);
+        checkArgument(!locationUUID.isEmpty());
+
+        this.machineUUID = machineUUID;
+        this.diskUUID = diskUUID;
+        this.cores = cores;
+        this.ram = ram;
+        this.diskSpace = diskSpace;
         this.locationUUID = locationUUID;
     }
 
     @Override public String getId() {
-        return machine.getResourceUUID() + ":" + disk.getResourceUUID();
+        return machineUUID + ":" + diskUUID;
     }
 
     @Override public boolean equals(Object obj) {
@@ -157,24 +189,18 @@ public class Hardware implements ResourceInLocation {
     }
 
     public int getCores() {
-        String value = this.searchForValueInProductOffer(CPU_KEY, this.machine);
-        checkNotNull(value, "Machine offer does not contain cpu key.");
-        return Integer.parseInt(value);
+        return cores;
     }
 
     public int getRam() {
-        String value = this.searchForValueInProductOffer(RAM_KEY, this.machine);
-        checkNotNull(value, "Machine offer does not contain ram key.");
-        return Integer.parseInt(value);
+        return ram;
     }
 
     public Float getDiskSpace() {
-        String value = this.searchForValueInProductOffer(DISK_KEY, this.disk);
-        checkNotNull(value, "Disk offer dos not contain disk key.");
-        return Float.parseFloat(value);
+        return diskSpace;
     }
 
-    @Nullable private String searchForValueInProductOffer(String key, ProductOffer productOffer) {
+    @Nullable private static String searchForValueInProductOffer(String key, ProductOffer productOffer) {
 
         checkNotNull(productOffer);
         checkNotNull(key);
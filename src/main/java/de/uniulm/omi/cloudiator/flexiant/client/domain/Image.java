@@ -24,19 +24,49 @@ import javax.annotation.Nullable;
 
 public class Image extends ResourceInLocationImpl {
 
+    @Nullable private final String defaultUser;
+    private final boolean genPassword;
+
     public Image(final io.github.cloudiator.flexiant.extility.Image image) {
-        super(image);
+        this(image, false);
+    }
+
+    /**
+     * Creates a snapshot of the given image.
+     *
+     * @param image  the extility image.
+     * @param retain whether {@link #getImage()} returns the extility image.
+     */
+    protected Image(final io.github.cloudiator.flexiant.extility.Image image,
+        final boolean retain) {
+        super(image, retain);
+        this.defaultUser = image.getDefaultUser();
+        this.genPassword = image.isGenPassword();
+    }
+
+    public Image(final String id, @Nullable final String name,
+        @Nullable final String locationUUID, @Nullable final String defaultUser,
+        final boolean genPassword) {
+        super(id, name, locationUUID);
+        this.defaultUser = defaultUser;
+        this.genPassword = genPassword;
     }
 
+    /**
+     * @return the extility image, only available if retained when constructed.
+     * @deprecated images are snapshots, use their getters instead. Will be removed with
+     * the next release.
+     */
+    @Deprecated @SuppressWarnings("deprecation")
     protected io.github.cloudiator.flexiant.extility.Image getImage() {
         return (io.github.cloudiator.flexiant.extility.Image) this.resource;
     }
 
     @Nullable public String getDefaultUser() {
-        return getImage().getDefaultUser();
+        return defaultUser;
     }
 
     public boolean isGenPassword() {
-        return getImage().isGenPassword();
+        return genPassword;
     }
 }
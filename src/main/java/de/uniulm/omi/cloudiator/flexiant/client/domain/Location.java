@@ -24,6 +24,7 @@ import io.github.cloudiator.flexiant.extility.Vdc;
 
 import javax.annotation.Nullable;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 public class Location extends ResourceImpl {
@@ -43,14 +44,36 @@ public class Location extends ResourceImpl {
         return new Location(vdc, cluster);
     }
 
+    /**
+     * Creates a vdc location sharing the given cluster location as parent.
+     *
+     * @param vdc    the vdc.
+     * @param parent the location of the cluster the vdc belongs to.
+     * @return the location of the vdc.
+     */
+    public static Location from(Vdc vdc, Location parent) {
+        checkNotNull(vdc);
+        checkNotNull(parent);
+        checkArgument(parent.getLocationScope() == LocationScope.CLUSTER,
+            "Parent of a vdc needs to be a cluster.");
+        checkArgument(parent.getId().equals(vdc.getClusterUUID()),
+            String.format("Vdc %s does not belong to cluster %s.", vdc.getResourceUUID(),
+                parent.getId()));
+        return new Location(vdc, parent);
+    }
+
     private Location(final Vdc vdc, final Cluster cluster) {
-        super(vdc);
+        this(vdc, Location.from(cluster));
+    }
+
+    private Location(final Vdc vdc, final Location parent) {
+        super(vdc, false);
         this.locationScope = LocationScope.VDC;
-        this.parent = Location.from(cluster);
+        this.parent = parent;
     }
 
     private Location(final Cluster cluster) {
-        super(cluster);
+        super(cluster, false);
         this.locationScope = LocationScope.CLUSTER;
         this.parent = null;
     }
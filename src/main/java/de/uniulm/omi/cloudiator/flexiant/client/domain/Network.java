@@ -20,12 +20,18 @@ package de.uniulm.omi.cloudiator.flexiant.client.domain;
 
 import de.uniulm.omi.cloudiator.flexiant.client.domain.generic.ResourceImpl;
 
+import javax.annotation.Nullable;
+
 /**
  * Created by daniel on 13.01.15.
  */
 public class Network extends ResourceImpl {
 
     public Network(io.github.cloudiator.flexiant.extility.Network network) {
-        super(network);
+        super(network, false);
+    }
+
+    public Network(String id, @Nullable String name) {
+        super(id, name);
     }
 }
@@ -30,26 +30,53 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 
 /**
- * Wrapper for the flexiant server class.
+ * Snapshot of a flexiant server.
+ * <p>
+ * The ip address is looked up once, the nics, disks and all other parts of the
+ * extility server are not retained.
  *
  * @see io.github.cloudiator.flexiant.extility.Server
  */
 public class Server extends ResourceInLocationImpl {
 
+    @Nullable private final String publicIpAddress;
+    @Nullable private final String initialUser;
+    @Nullable private final String initialPassword;
+
     public Server(final io.github.cloudiator.flexiant.extility.Server server) {
-        super(server);
-        checkNotNull(server);
+        this(server, false);
     }
 
-    protected io.github.cloudiator.flexiant.extility.Server getServer() {
-        return (io.github.cloudiator.flexiant.extility.Server) this.resource;
+    /**
+     * Creates a snapshot of the given server.
+     *
+     * @param server the extility server.
+     * @param retain whether {@link #getServer()} returns the extility server.
+     */
+    protected Server(final io.github.cloudiator.flexiant.extility.Server server,
+        final boolean retain) {
+        super(checkNotNull(server), retain);
+        this.publicIpAddress = publicIpAddressOf(server);
+        this.initialUser = server.getInitialUser();
+        this.initialPassword = server.getInitialPassword();
     }
 
-    @Nullable public String getPublicIpAddress() {
-        for (final Nic nic : this.getServer().getNics()) {
-            if (nic.getNetworkType().equals(NetworkType.IP)) {
+    public Server(final String id, @Nullable final String name,
+        @Nullable final String locationUUID,
+        @Nullable final String publicIpAddress, @Nullable final String initialUser,
+        @Nullable final String initialPassword) {
+        super(id, name, locationUUID);
+        this.publicIpAddress = publicIpAddress;
+        this.initialUser = initialUser;
+        this.initialPassword = initialPassword;
+    }
+
+    @Nullable private static String publicIpAddressOf(
+        final io.github.cloudiator.flexiant.extility.Server server) {
+        for (final Nic nic : server.getNics()) {
+            if (NetworkType.IP == nic.getNetworkType()) {
                 for (final Ip ip : nic.getIpAddresses()) {
-                    if (ip.getType().equals(IpType.IPV_4)) {
+                    if (IpType.IPV_4 == ip.getType()) {
                         return ip.getIpAddress();
                     }
                 }
@@ -58,15 +85,29 @@ public class Server extends ResourceInLocationImpl {
         return null;
     }
 
+    /**
+     * @return the extility server, only available if retained when constructed.
+     * @deprecated servers are snapshots, use their getters instead. Will be removed with
+     * the next release.
+     */
+    @Deprecated @SuppressWarnings("deprecation")
+    protected io.github.cloudiator.flexiant.extility.Server getServer() {
+        return (io.github.cloudiator.flexiant.extility.Server) this.resource;
+    }
+
+    @Nullable public String getPublicIpAddress() {
+        return this.publicIpAddress;
+    }
+
     @Nullable public String getPrivateIpAddress() {
         return this.getPublicIpAddress();
     }
 
     @Nullable public String getInitialUser() {
-        return this.getServer().getInitialUser();
+        return this.initialUser;
     }
 
     @Nullable public String getInitialPassword() {
-        return this.getServer().getInitialPassword();
+        return this.initialPassword;
     }
 }
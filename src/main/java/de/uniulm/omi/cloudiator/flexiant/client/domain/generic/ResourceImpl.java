@@ -20,26 +20,75 @@ package de.uniulm.omi.cloudiator.flexiant.client.domain.generic;
 
 import de.uniulm.omi.cloudiator.flexiant.client.api.Resource;
 
+import javax.annotation.Nullable;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Created by daniel on 05.12.14.
+ * <p>
+ * Resources are immutable snapshots. They copy the fields they need from the
+ * extility resource and do not keep a reference to it.
  */
 public abstract class ResourceImpl implements Resource {
 
-    protected final io.github.cloudiator.flexiant.extility.Resource resource;
+    /**
+     * The extility resource this resource was created from.
+     * <p>
+     * Only kept if a subclass asks to retain it when constructed, the resources created
+     * by the client do not retain it.
+     *
+     * @deprecated resources are snapshots, use their getters instead. Will be removed
+     * with the next release.
+     */
+    @Deprecated @Nullable protected final io.github.cloudiator.flexiant.extility.Resource
+        resource;
+
+    private final String id;
+    @Nullable private final String name;
+
+    /**
+     * Creates a snapshot of the given resource, retaining it in {@link #resource}.
+     *
+     * @param resource the extility resource.
+     * @deprecated retains the resource, use the constructor taking the retain flag
+     * instead.
+     */
+    @Deprecated public ResourceImpl(io.github.cloudiator.flexiant.extility.Resource resource) {
+        this(resource, true);
+    }
+
+    /**
+     * Creates a snapshot of the given resource.
+     *
+     * @param resource the extility resource.
+     * @param retain   whether the deprecated {@link #resource} field keeps the resource.
+     */
+    protected ResourceImpl(io.github.cloudiator.flexiant.extility.Resource resource,
+        boolean retain) {
+        this(checkNotNull(resource).getResourceUUID(), resource.getResourceName(),
+            retain ? resource : null);
+    }
+
+    public ResourceImpl(String id, @Nullable String name) {
+        this(id, name, null);
+    }
 
-    public ResourceImpl(io.github.cloudiator.flexiant.extility.Resource resource) {
-        checkNotNull(resource);
+    @SuppressWarnings("deprecation")
+    private ResourceImpl(String id, @Nullable String name,
+        @Nullable io.github.cloudiator.flexiant.extility.Resource resource) {
+        checkNotNull(id);
+        this.id = id;
+        this.name = name;
         this.resource = resource;
     }
 
     @Override public String getId() {
-        return this.resource.getResourceUUID();
+        return this.id;
     }
 
     @Override public String getName() {
-        return this.resource.getResourceName();
+        return this.name;
     }
 
     @Override public int hashCode() {
@@ -18,21 +18,61 @@
 
 package de.uniulm.omi.cloudiator.flexiant.client.domain.generic;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import de.uniulm.omi.cloudiator.flexiant.client.api.ResourceInLocation;
 import io.github.cloudiator.flexiant.extility.VirtualResource;
 
+import javax.annotation.Nullable;
+import java.util.Objects;
 
 /**
  * Created by daniel on 13.01.15.
  */
 public abstract class ResourceInLocationImpl extends ResourceImpl implements ResourceInLocation {
 
-    public ResourceInLocationImpl(VirtualResource virtualResource) {
-        super(virtualResource);
+    /**
+     * There are only a few locations, so all resources share the instances of their uuids.
+     */
+    private static final Interner<String> LOCATION_UUIDS = Interners.newWeakInterner();
+
+    @Nullable private final String locationUUID;
+
+    /**
+     * Creates a snapshot of the given resource, retaining it in {@link #resource}.
+     *
+     * @param virtualResource the extility resource.
+     * @deprecated retains the resource, use the constructor taking the retain flag
+     * instead.
+     */
+    @Deprecated public ResourceInLocationImpl(VirtualResource virtualResource) {
+        this(virtualResource, true);
+    }
+
+    /**
+     * Creates a snapshot of the given resource.
+     *
+     * @param virtualResource the extility resource.
+     * @param retain          whether the deprecated {@link #resource} field keeps the
+     *                        resource.
+     */
+    protected ResourceInLocationImpl(VirtualResource virtualResource, boolean retain) {
+        super(virtualResource, retain);
+        this.locationUUID = intern(virtualResource.getClusterUUID());
+    }
+
+    public ResourceInLocationImpl(String id, @Nullable String name,
+        @Nullable String locationUUID) {
+        super(id, name);
+        this.locationUUID = intern(locationUUID);
+    }
+
+    @Nullable private static String intern(@Nullable String locationUUID) {
+        return locationUUID == null ? null : LOCATION_UUIDS.intern(locationUUID);
     }
 
-    @Override public String getLocationUUID() {
-        return ((VirtualResource) this.resource).getClusterUUID();
+    @Nullable @Override public String getLocationUUID() {
+        return this.locationUUID;
     }
 
     @Override public int hashCode() {
@@ -41,7 +81,7 @@ public abstract class ResourceInLocationImpl extends ResourceImpl implements Res
 
     @Override public boolean equals(Object obj) {
         return obj instanceof ResourceInLocation && this.getId()
-            .equals(((ResourceInLocation) obj).getId()) && this.getLocationUUID()
-            .equals(((ResourceInLocation) obj).getLocationUUID());
+            .equals(((ResourceInLocation) obj).getId()) && Objects
+            .equals(this.getLocationUUID(), ((ResourceInLocation) obj).getLocationUUID());
     }
 }
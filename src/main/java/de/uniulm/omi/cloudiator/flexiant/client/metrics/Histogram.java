@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Lock free histogram of non negative values with logarithmic buckets.
+ * <p>
+ * Bucket i counts the values below 2^i, so percentiles are exact up to a factor of two.
+ * Recording a value costs a few uncontended additions.
+ */
+public class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    /**
+     * No-args constructor.
+     */
+    public Histogram() {
+        this.buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Records the given value, negative values are recorded as 0.
+     *
+     * @param value the value to record.
+     */
+    public void record(final long value) {
+        final long v = Math.max(0, value);
+        buckets[BUCKETS - Long.numberOfLeadingZeros(v)].increment();
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    /**
+     * @return the number of recorded values.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the sum of all recorded values.
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return the largest recorded value.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of all recorded values, 0 if no value was recorded.
+     */
+    public double getMean() {
+        final long n = getCount();
+        return n == 0 ? 0 : (double) getSum() / n;
+    }
+
+    /**
+     * Returns an upper bound of the given percentile.
+     *
+     * @param percentile the percentile between 0 and 100, e.g. 99.
+     * @return the upper bound of the bucket containing the percentile, but at most the maximum.
+     */
+    public long getPercentile(final double percentile) {
+        checkArgument(percentile >= 0 && percentile <= 100,
+            "Percentile must be between 0 and 100.");
+        final long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return Math.min(getMax(), (1L << i) - 1);
+            }
+        }
+        return getMax();
+    }
+
+    @Override public String toString() {
+        return String.format("Histogram{count=%d, mean=%.1f, p50=%d, p99=%d, max=%d}", getCount(),
+            getMean(), getPercentile(50), getPercentile(99), getMax());
+    }
+}
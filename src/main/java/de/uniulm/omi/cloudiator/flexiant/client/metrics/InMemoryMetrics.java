@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.metrics;
+
+import io.github.cloudiator.flexiant.extility.JobStatus;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Metrics listener keeping all metrics in memory.
+ * <p>
+ * Calls are aggregated per operation and, for operations called for a resource type,
+ * additionally per resource type. If also configured as {@link SoapPhaseListener}, the
+ * phases of the calls are aggregated per operation. All counters are lock free.
+ */
+public class InMemoryMetrics implements MetricsListener, SoapPhaseListener {
+
+    private final ConcurrentMap<String, OperationMetrics> operations;
+    private final ConcurrentMap<ResourceType, OperationMetrics> resourceTypes;
+    private final ConcurrentMap<JobStatus, Histogram> jobWaits;
+    private final Histogram jobTimeouts;
+    private final ConcurrentMap<String, PhaseMetrics> phases;
+
+    /**
+     * No-args constructor.
+     */
+    public InMemoryMetrics() {
+        this.operations = new ConcurrentHashMap<>();
+        this.resourceTypes = new ConcurrentHashMap<>();
+        this.jobWaits = new ConcurrentHashMap<>();
+        this.jobTimeouts = new Histogram();
+        this.phases = new ConcurrentHashMap<>();
+    }
+
+    @Override public void onCall(final String operation, @Nullable final ResourceType resourceType,
+        final long durationNanos, final int resultSize, @Nullable final Throwable failure) {
+        metrics(operations, operation).record(durationNanos, resultSize, failure != null);
+        if (resourceType != null) {
+            metrics(resourceTypes, resourceType).record(durationNanos, resultSize, failure != null);
+        }
+    }
+
+    @Override public void onJobFinished(final String jobUUID, @Nullable final JobStatus status,
+        final long durationNanos) {
+        if (status == null) {
+            jobTimeouts.record(durationNanos);
+            return;
+        }
+        Histogram histogram = jobWaits.get(status);
+        if (histogram == null) {
+            histogram = jobWaits.computeIfAbsent(status, s -> new Histogram());
+        }
+        histogram.record(durationNanos);
+    }
+
+    @Override public void onPhases(final SoapPhases soapPhases) {
+        PhaseMetrics metrics = phases.get(soapPhases.getOperation());
+        if (metrics == null) {
+            metrics = phases.computeIfAbsent(soapPhases.getOperation(), o -> new PhaseMetrics());
+        }
+        metrics.record(soapPhases);
+    }
+
+    /**
+     * @return the metrics per operation name.
+     */
+    public Map<String, OperationMetrics> getOperations() {
+        return Collections.unmodifiableMap(operations);
+    }
+
+    /**
+     * @return the metrics per resource type.
+     */
+    public Map<ResourceType, OperationMetrics> getResourceTypes() {
+        return Collections.unmodifiableMap(resourceTypes);
+    }
+
+    /**
+     * @return the time waited for finished jobs in nanoseconds, per final status.
+     */
+    public Map<JobStatus, Histogram> getJobWaits() {
+        return Collections.unmodifiableMap(jobWaits);
+    }
+
+    /**
+     * @return the time waited for jobs which timed out in nanoseconds.
+     */
+    public Histogram getJobTimeouts() {
+        return jobTimeouts;
+    }
+
+    /**
+     * @return the phases of the calls per operation name.
+     */
+    public Map<String, PhaseMetrics> getPhases() {
+        return Collections.unmodifiableMap(phases);
+    }
+
+    private static <K> OperationMetrics metrics(final ConcurrentMap<K, OperationMetrics> map,
+        final K key) {
+        // avoid the locking of computeIfAbsent on the hot path
+        final OperationMetrics metrics = map.get(key);
+        if (metrics != null) {
+            return metrics;
+        }
+        return map.computeIfAbsent(key, k -> new OperationMetrics());
+    }
+
+    @Override public String toString() {
+        return String
+            .format("InMemoryMetrics{operations=%s, resourceTypes=%s, jobWaits=%s, phases=%s}",
+                operations, resourceTypes, jobWaits, phases);
+    }
+}
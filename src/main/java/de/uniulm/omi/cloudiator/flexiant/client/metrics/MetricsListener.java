@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.metrics;
+
+import io.github.cloudiator.flexiant.extility.JobStatus;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+
+import javax.annotation.Nullable;
+
+/**
+ * Listener for metrics of the client.
+ * <p>
+ * The listener is called synchronously on the calling thread, so implementations must
+ * be thread safe, fast and must not throw. All methods default to doing nothing.
+ *
+ * @see InMemoryMetrics
+ */
+public interface MetricsListener {
+
+    /**
+     * Listener ignoring all metrics.
+     */
+    MetricsListener NOOP = new MetricsListener() {
+    };
+
+    /**
+     * Called after every call of an operation against the api.
+     *
+     * @param operation     the name of the operation, e.g. listResources.
+     * @param resourceType  the resource type the operation was called for, if any.
+     * @param durationNanos the duration of the call in nanoseconds.
+     * @param resultSize    the number of returned resources, -1 if the operation does not
+     *                      return a list.
+     * @param failure       the failure of the call, null if it was successful.
+     */
+    default void onCall(String operation, @Nullable ResourceType resourceType, long durationNanos,
+        int resultSize, @Nullable Throwable failure) {
+    }
+
+    /**
+     * Called once a tracked job finished, timed out or was failed by the tracker.
+     *
+     * @param jobUUID       the uuid of the job.
+     * @param status        the final status of the job, null if it timed out or was failed.
+     * @param durationNanos the time waited for the job in nanoseconds.
+     */
+    default void onJobFinished(String jobUUID, @Nullable JobStatus status, long durationNanos) {
+    }
+}
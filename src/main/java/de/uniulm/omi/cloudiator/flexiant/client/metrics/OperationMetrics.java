@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the calls of a single operation or resource type.
+ */
+public class OperationMetrics {
+
+    private final Histogram latencyNanos;
+    private final Histogram resultSizes;
+    private final LongAdder errors;
+
+    /**
+     * No-args constructor.
+     */
+    public OperationMetrics() {
+        this.latencyNanos = new Histogram();
+        this.resultSizes = new Histogram();
+        this.errors = new LongAdder();
+    }
+
+    /**
+     * Records a call.
+     *
+     * @param durationNanos the duration of the call in nanoseconds.
+     * @param resultSize    the number of returned resources, negative if not applicable.
+     * @param failed        true if the call failed.
+     */
+    public void record(final long durationNanos, final int resultSize, final boolean failed) {
+        latencyNanos.record(durationNanos);
+        if (resultSize >= 0) {
+            resultSizes.record(resultSize);
+        }
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * @return the latencies of all calls in nanoseconds.
+     */
+    public Histogram getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * @return the number of resources returned by successful list calls.
+     */
+    public Histogram getResultSizes() {
+        return resultSizes;
+    }
+
+    /**
+     * @return the number of failed calls.
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override public String toString() {
+        return String.format("OperationMetrics{latencyNanos=%s, resultSizes=%s, errors=%d}",
+            latencyNanos, resultSizes, getErrors());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.metrics;
+
+/**
+ * Metrics of the phases of the calls of a single operation.
+ */
+public class PhaseMetrics {
+
+    private final Histogram marshalNanos;
+    private final Histogram networkNanos;
+    private final Histogram unmarshalNanos;
+    private final Histogram requestBytes;
+    private final Histogram responseBytes;
+
+    /**
+     * No-args constructor.
+     */
+    public PhaseMetrics() {
+        this.marshalNanos = new Histogram();
+        this.networkNanos = new Histogram();
+        this.unmarshalNanos = new Histogram();
+        this.requestBytes = new Histogram();
+        this.responseBytes = new Histogram();
+    }
+
+    /**
+     * Records the phases of a call.
+     *
+     * @param phases the phases.
+     */
+    public void record(final SoapPhases phases) {
+        marshalNanos.record(phases.getMarshalNanos());
+        networkNanos.record(phases.getNetworkNanos());
+        unmarshalNanos.record(phases.getUnmarshalNanos());
+        if (phases.getRequestBytes() >= 0) {
+            requestBytes.record(phases.getRequestBytes());
+        }
+        if (phases.getResponseBytes() >= 0) {
+            responseBytes.record(phases.getResponseBytes());
+        }
+    }
+
+    /**
+     * @return the durations of the marshal phases in nanoseconds.
+     */
+    public Histogram getMarshalNanos() {
+        return marshalNanos;
+    }
+
+    /**
+     * @return the durations of the network phases in nanoseconds.
+     */
+    public Histogram getNetworkNanos() {
+        return networkNanos;
+    }
+
+    /**
+     * @return the durations of the unmarshal phases in nanoseconds.
+     */
+    public Histogram getUnmarshalNanos() {
+        return unmarshalNanos;
+    }
+
+    /**
+     * @return the sizes of the request envelopes, if known.
+     */
+    public Histogram getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * @return the sizes of the response envelopes, if known.
+     */
+    public Histogram getResponseBytes() {
+        return responseBytes;
+    }
+
+    @Override public String toString() {
+        return String.format(
+            "PhaseMetrics{marshalNanos=%s, networkNanos=%s, unmarshalNanos=%s, requestBytes=%s, "
+                + "responseBytes=%s}", marshalNanos, networkNanos, unmarshalNanos, requestBytes,
+            responseBytes);
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.metrics;
+
+/**
+ * Listener for the phases of SOAP calls.
+ * <p>
+ * Measuring the phases requires materializing and serializing every message once more,
+ * so it is only done if a listener is configured. Like the {@link MetricsListener},
+ * the listener is called synchronously on the calling thread.
+ */
+public interface SoapPhaseListener {
+
+    /**
+     * Listener ignoring all phases. If configured, phases are not measured at all.
+     */
+    SoapPhaseListener NOOP = phases -> {
+    };
+
+    /**
+     * Called after every successfully completed SOAP call.
+     *
+     * @param phases the phases of the call.
+     */
+    void onPhases(SoapPhases phases);
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The phases of a single SOAP call.
+ * <p>
+ * The marshal phase covers the creation of the request message, the network phase
+ * the exchange with the server including writing the request and reading the
+ * response, and the unmarshal phase the mapping of the response to the result objects.
+ */
+public class SoapPhases {
+
+    private final String operation;
+    private final long marshalNanos;
+    private final long networkNanos;
+    private final long unmarshalNanos;
+    private final long requestBytes;
+    private final long responseBytes;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param operation      the name of the operation.
+     * @param marshalNanos   the duration of the marshal phase in nanoseconds.
+     * @param networkNanos   the duration of the network phase in nanoseconds.
+     * @param unmarshalNanos the duration of the unmarshal phase in nanoseconds.
+     * @param requestBytes   the size of the request envelope, -1 if unknown.
+     * @param responseBytes  the size of the response envelope, -1 if unknown.
+     */
+    public SoapPhases(final String operation, final long marshalNanos, final long networkNanos,
+        final long unmarshalNanos, final long requestBytes, final long responseBytes) {
+        checkNotNull(operation);
+        this.operation = operation;
+        this.marshalNanos = marshalNanos;
+        this.networkNanos = networkNanos;
+        this.unmarshalNanos = unmarshalNanos;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+    }
+
+    /**
+     * @return the name of the operation.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return the duration of the marshal phase in nanoseconds.
+     */
+    public long getMarshalNanos() {
+        return marshalNanos;
+    }
+
+    /**
+     * @return the duration of the network phase in nanoseconds.
+     */
+    public long getNetworkNanos() {
+        return networkNanos;
+    }
+
+    /**
+     * @return the duration of the unmarshal phase in nanoseconds.
+     */
+    public long getUnmarshalNanos() {
+        return unmarshalNanos;
+    }
+
+    /**
+     * @return the size of the request envelope, -1 if unknown.
+     */
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * @return the size of the response envelope, -1 if unknown.
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    @Override public String toString() {
+        return String.format(
+            "SoapPhases{operation=%s, marshalNanos=%d, networkNanos=%d, unmarshalNanos=%d, "
+                + "requestBytes=%d, responseBytes=%d}", operation, marshalNanos, networkNanos,
+            unmarshalNanos, requestBytes, responseBytes);
+    }
+}
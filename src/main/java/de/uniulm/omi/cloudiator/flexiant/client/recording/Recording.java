@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.recording;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The on-disk format of recorded SOAP traffic.
+ * <p>
+ * A recording is a directory containing the request and response envelope of every
+ * call, named by a sequence number, and an index file with one tab separated line per
+ * call: the sequence number, the operation, the key of the request, the time between
+ * sending the request and receiving the response in microseconds, and whether the
+ * response is a fault.
+ * <p>
+ * The key identifies identical requests independent of namespace prefixes and
+ * formatting, so that a replay can find the response to a request.
+ *
+ * @see RecordingHandler
+ */
+public final class Recording {
+
+    /**
+     * The name of the index file.
+     */
+    public static final String INDEX_FILE = "index.tsv";
+
+    private Recording() {
+        throw new AssertionError("Do not instantiate");
+    }
+
+    /**
+     * Computes the key of a request.
+     *
+     * @param envelope the serialized SOAP envelope of the request.
+     * @return the key, a hash of the names and texts of all elements in the body.
+     * @throws IllegalArgumentException if the envelope can not be parsed.
+     */
+    public static String keyOf(final byte[] envelope) {
+        checkNotNull(envelope);
+        final Element body = parseBody(envelope);
+        checkArgument(body != null, "Envelope does not have a body.");
+        return keyOf(body);
+    }
+
+    /**
+     * Returns the operation of a request.
+     *
+     * @param envelope the serialized SOAP envelope of the request.
+     * @return the local name of the first element in the body.
+     */
+    public static String operationOf(final byte[] envelope) {
+        checkNotNull(envelope);
+        return operationOf(parseBody(envelope));
+    }
+
+    /**
+     * Creates the index entry of a call, parsing the request only once.
+     *
+     * @param sequence       the sequence number of the call.
+     * @param request        the serialized SOAP envelope of the request.
+     * @param durationMicros the duration of the call.
+     * @param fault          whether the response is a fault.
+     * @return the entry.
+     * @throws IllegalArgumentException if the request can not be parsed.
+     */
+    static Entry entryOf(final long sequence, final byte[] request, final long durationMicros,
+        final boolean fault) {
+        checkNotNull(request);
+        final Element body = parseBody(request);
+        checkArgument(body != null, "Envelope does not have a body.");
+        return new Entry(sequence, operationOf(body), keyOf(body), durationMicros, fault);
+    }
+
+    private static Element parseBody(final byte[] envelope) {
+        try {
+            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            return findBody(
+                factory.newDocumentBuilder().parse(new ByteArrayInputStream(envelope))
+                    .getDocumentElement());
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            throw new IllegalArgumentException("Could not parse envelope.", e);
+        }
+    }
+
+    private static String keyOf(final Element body) {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        hash(body, hasher);
+        return hasher.hash().toString();
+    }
+
+    private static String operationOf(final Element body) {
+        for (Node child = body == null ? null : body.getFirstChild(); child != null;
+             child = child.getNextSibling()) {
+            if (child instanceof Element) {
+                return child.getLocalName();
+            }
+        }
+        return "unknown";
+    }
+
+    private static Element findBody(final Element envelope) {
+        for (Node child = envelope.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element && "Body".equals(child.getLocalName())) {
+                return (Element) child;
+            }
+        }
+        return null;
+    }
+
+    private static void hash(final Element element, final Hasher hasher) {
+        hasher.putString(element.getLocalName(), StandardCharsets.UTF_8).putChar('{');
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element) {
+                hash((Element) child, hasher);
+            } else if (child.getNodeType() == Node.TEXT_NODE
+                || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                hasher.putString(child.getNodeValue().trim(), StandardCharsets.UTF_8);
+            }
+        }
+        hasher.putChar('}');
+    }
+
+    /**
+     * @param directory the directory of the recording.
+     * @param sequence  the sequence number of the call.
+     * @return the file of the request envelope.
+     */
+    public static Path requestFile(final Path directory, final long sequence) {
+        return directory.resolve(String.format("%08d.request.xml", sequence));
+    }
+
+    /**
+     * @param directory the directory of the recording.
+     * @param sequence  the sequence number of the call.
+     * @return the file of the response envelope.
+     */
+    public static Path responseFile(final Path directory, final long sequence) {
+        return directory.resolve(String.format("%08d.response.xml", sequence));
+    }
+
+    /**
+     * Reads the index of a recording.
+     *
+     * @param directory the directory of the recording.
+     * @return the recorded calls, in the order they were recorded.
+     * @throws IOException if the index can not be read.
+     */
+    public static List<Entry> readIndex(final Path directory) throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        for (String line : Files
+            .readAllLines(directory.resolve(INDEX_FILE), StandardCharsets.UTF_8)) {
+            if (!line.isEmpty()) {
+                entries.add(Entry.parse(line));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * A single recorded call.
+     */
+    public static class Entry {
+
+        private final long sequence;
+        private final String operation;
+        private final String key;
+        private final long durationMicros;
+        private final boolean fault;
+
+        public Entry(final long sequence, final String operation, final String key,
+            final long durationMicros, final boolean fault) {
+            checkNotNull(operation);
+            checkNotNull(key);
+            this.sequence = sequence;
+            this.operation = operation;
+            this.key = key;
+            this.durationMicros = durationMicros;
+            this.fault = fault;
+        }
+
+        static Entry parse(final String line) {
+            final String[] fields = line.split("\t");
+            checkArgument(fields.length == 5, "Malformed index line: %s", line);
+            return new Entry(Long.parseLong(fields[0]), fields[1], fields[2],
+                Long.parseLong(fields[3]), Boolean.parseBoolean(fields[4]));
+        }
+
+        String toLine() {
+            return String
+                .format("%d\t%s\t%s\t%d\t%b%n", sequence, operation, key, durationMicros, fault);
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getDurationMicros() {
+            return durationMicros;
+        }
+
+        public boolean isFault() {
+            return fault;
+        }
+
+        @Override public String toString() {
+            return String.format("Entry{sequence=%d, operation=%s, durationMicros=%d, fault=%b}",
+                sequence, operation, durationMicros, fault);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.recording;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import javax.xml.namespace.QName;
+import javax.xml.soap.SOAPException;
+import javax.xml.soap.SOAPMessage;
+import javax.xml.ws.WebServiceException;
+import javax.xml.ws.handler.MessageContext;
+import javax.xml.ws.handler.soap.SOAPHandler;
+import javax.xml.ws.handler.soap.SOAPMessageContext;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Handler writing the request and response envelopes of every call to a
+ * {@link Recording} directory.
+ * <p>
+ * A single handler may be shared by all ports of a client. The request of a call is
+ * kept on the calling thread until its response arrives. The calling thread only
+ * serializes the messages, parsing the request and writing the files is done by a
+ * single background thread, which ends once it is idle. A failed write is logged and
+ * the call is missing from the recording. Recording still costs a serialization of
+ * every message, so it is meant for capturing traffic once, not for permanent use.
+ */
+public class RecordingHandler implements SOAPHandler<SOAPMessageContext> {
+
+    private static final Logger LOGGER = Logger.getLogger(RecordingHandler.class.getName());
+
+    private final Path directory;
+    private final AtomicLong sequence;
+    private final ThreadLocal<PendingRequest> pending;
+    private final ThreadPoolExecutor writer;
+
+    /**
+     * Constructor for the class.
+     *
+     * @param directory the directory to record to, created if it does not exist.
+     * @throws IOException if the directory can not be created.
+     */
+    public RecordingHandler(final Path directory) throws IOException {
+        checkNotNull(directory);
+        this.directory = Files.createDirectories(directory);
+        this.sequence = new AtomicLong(nextSequence(directory));
+        this.pending = new ThreadLocal<>();
+        // not a daemon, so that pending writes are finished before the jvm exits
+        this.writer = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("flexiant-recording-%d").build());
+        this.writer.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Continues the numbering of an existing recording.
+     */
+    private static long nextSequence(final Path directory) throws IOException {
+        if (!Files.exists(directory.resolve(Recording.INDEX_FILE))) {
+            return 0;
+        }
+        long next = 0;
+        for (Recording.Entry entry : Recording.readIndex(directory)) {
+            next = Math.max(next, entry.getSequence() + 1);
+        }
+        return next;
+    }
+
+    /**
+     * @return the directory recorded to.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Waits until all calls recorded so far are written.
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void flush() throws InterruptedException {
+        try {
+            writer.submit(() -> {
+            }).get();
+        } catch (ExecutionException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Override public Set<QName> getHeaders() {
+        return Collections.emptySet();
+    }
+
+    @Override public boolean handleMessage(final SOAPMessageContext context) {
+        record(context, false);
+        return true;
+    }
+
+    @Override public boolean handleFault(final SOAPMessageContext context) {
+        record(context, true);
+        return true;
+    }
+
+    @Override public void close(final MessageContext context) {
+        // a call without response, e.g. due to a transport error, is not recorded
+        pending.remove();
+    }
+
+    private void record(final SOAPMessageContext context, final boolean fault) {
+        final boolean outbound =
+            Boolean.TRUE.equals(context.get(MessageContext.MESSAGE_OUTBOUND_PROPERTY));
+        if (outbound) {
+            pending.set(new PendingRequest(serialize(context.getMessage()), System.nanoTime()));
+            return;
+        }
+
+        final PendingRequest request = pending.get();
+        pending.remove();
+        if (request == null) {
+            LOGGER.log(Level.WARNING,
+                "Not recording a {0} without a pending request, the request was not seen by "
+                    + "this handler.", fault ? "fault" : "response");
+            return;
+        }
+        final long durationMicros =
+            TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - request.sentNanos);
+        final byte[] envelope = serialize(context.getMessage());
+        final long seq = sequence.getAndIncrement();
+        writer.execute(() -> write(seq, request.envelope, envelope, durationMicros, fault));
+    }
+
+    private void write(final long seq, final byte[] request, final byte[] response,
+        final long durationMicros, final boolean fault) {
+        try {
+            final Recording.Entry entry = Recording.entryOf(seq, request, durationMicros, fault);
+            Files.write(Recording.requestFile(directory, seq), request);
+            Files.write(Recording.responseFile(directory, seq), response);
+            try (Writer index = Files
+                .newBufferedWriter(directory.resolve(Recording.INDEX_FILE),
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND)) {
+                index.write(entry.toLine());
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Could not record call " + seq + " to " + directory, e);
+        }
+    }
+
+    private static byte[] serialize(final SOAPMessage message) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            message.writeTo(out);
+        } catch (SOAPException | IOException e) {
+            throw new WebServiceException("Could not serialize message.", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static class PendingRequest {
+
+        private final byte[] envelope;
+        private final long sentNanos;
+
+        private PendingRequest(final byte[] envelope, final long sentNanos) {
+            this.envelope = envelope;
+            this.sentNanos = sentNanos;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Server;
+import de.uniulm.omi.cloudiator.flexiant.client.fake.FakeFco;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import io.github.cloudiator.flexiant.extility.ServerStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link AsyncFlexiantComputeClient}, run against the {@link FakeFco}.
+ */
+public class AsyncFlexiantComputeClientTest {
+
+    private FakeFco fco;
+    private AsyncFlexiantComputeClient client;
+
+    @Before public void setUp() {
+        fco = new FakeFco.FakeFcoBuilder().servers(10).jobDuration(10, TimeUnit.MILLISECONDS)
+            .build();
+        final ClientConfiguration configuration =
+            new ClientConfiguration.ClientConfigurationBuilder()
+                .jobPollInterval(10, TimeUnit.MILLISECONDS).build();
+        client = new AsyncFlexiantComputeClient(new FlexiantComputeClient(
+            new FlexiantBaseClient("fake", "customer/user", configuration, fco::service)));
+    }
+
+    @After public void tearDown() {
+        client.close();
+        fco.close();
+    }
+
+    private ServerStatus statusOf(final String serverUUID) {
+        return fco.getResources(ResourceType.SERVER,
+            io.github.cloudiator.flexiant.extility.Server.class).stream()
+            .filter(server -> server.getResourceUUID().equals(serverUUID)).findFirst()
+            .map(io.github.cloudiator.flexiant.extility.Server::getStatus).orElse(null);
+    }
+
+    @Test public void createServerCompletesWithTheRunningServer() throws Exception {
+        final Server server =
+            client.createServer(fco.template("created")).get(10, TimeUnit.SECONDS);
+
+        assertEquals("created", server.getName());
+        assertEquals(ServerStatus.RUNNING, statusOf(server.getId()));
+    }
+
+    @Test public void streamServersConsumesAllServers() throws Exception {
+        final AtomicInteger servers = new AtomicInteger();
+
+        client.streamServers(null, 3, server -> servers.incrementAndGet())
+            .get(10, TimeUnit.SECONDS);
+
+        assertEquals(10, servers.get());
+    }
+
+    @Test public void changeServerStatusByPrefix() throws Exception {
+        final Server server =
+            client.createServer(fco.template("prefix-1")).get(10, TimeUnit.SECONDS);
+
+        final Map<String, OperationResult<Void>> results =
+            client.changeServerStatus("prefix-", null, ServerStatus.STOPPED)
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, results.size());
+        assertTrue(results.get(server.getId()).isSuccessful());
+        assertEquals(ServerStatus.STOPPED, statusOf(server.getId()));
+    }
+
+    @Test public void deleteServersByPrefix() throws Exception {
+        final Server server =
+            client.createServer(fco.template("delete-1")).get(10, TimeUnit.SECONDS);
+
+        final Map<String, OperationResult<Void>> results =
+            client.deleteServers("delete-", null).get(10, TimeUnit.SECONDS);
+
+        assertTrue(results.get(server.getId()).isSuccessful());
+        assertNull(statusOf(server.getId()));
+    }
+
+    @Test public void waitingForAJobDoesNotBlockTheExecutor() throws Exception {
+        final FakeFco slowFco =
+            new FakeFco.FakeFcoBuilder().servers(1).jobDuration(1, TimeUnit.SECONDS).build();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final ClientConfiguration configuration =
+            new ClientConfiguration.ClientConfigurationBuilder()
+                .jobPollInterval(10, TimeUnit.MILLISECONDS).build();
+        try (AsyncFlexiantComputeClient slowClient = new AsyncFlexiantComputeClient(
+            new FlexiantComputeClient(
+                new FlexiantBaseClient("fake", "customer/user", configuration,
+                    slowFco::service)), executor)) {
+            final String serverUUID =
+                slowClient.getServers(null).get(10, TimeUnit.SECONDS).iterator().next().getId();
+
+            final CompletableFuture<Void> stopped = slowClient.stopServer(serverUUID);
+            // the only thread of the executor is free again once the job is submitted
+            slowClient.getServers(null).get(10, TimeUnit.SECONDS);
+
+            assertFalse(stopped.isDone());
+            stopped.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+            slowFco.close();
+        }
+    }
+}
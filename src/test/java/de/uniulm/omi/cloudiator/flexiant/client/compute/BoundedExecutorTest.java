@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link BoundedExecutor}.
+ */
+public class BoundedExecutorTest {
+
+    private ExecutorService shared;
+
+    @Before public void setUp() {
+        shared = Executors.newFixedThreadPool(8);
+    }
+
+    @After public void tearDown() {
+        shared.shutdownNow();
+    }
+
+    @Test public void runsAllTasksWithinTheLimit() throws Exception {
+        final BoundedExecutor executor = new BoundedExecutor(shared, 2);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(50);
+
+        for (int i = 0; i < 50; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue("Max running " + maxRunning, maxRunning.get() <= 2);
+    }
+
+    @Test public void runsRejectedTasksOnTheCallingThread() {
+        shared.shutdown();
+        final BoundedExecutor executor = new BoundedExecutor(shared, 2);
+        final AtomicInteger ran = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            executor.execute(ran::incrementAndGet);
+        }
+
+        assertEquals(5, ran.get());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.reflect.Reflection;
+import io.github.cloudiator.flexiant.extility.Job;
+import io.github.cloudiator.flexiant.extility.ListResult;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import io.github.cloudiator.flexiant.extility.ServerStatus;
+import io.github.cloudiator.flexiant.extility.UserService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link CallCoalescer}.
+ */
+public class CallCoalescerTest {
+
+    private final AtomicInteger listCalls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExecutorService executor;
+    private UserService service;
+
+    @Before public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        // every query blocks until released and lists one resource
+        final UserService delegate =
+            Reflection.newProxy(UserService.class, (proxy, method, args) -> {
+                if (method.getName().equals("listResources")) {
+                    listCalls.incrementAndGet();
+                    release.await(10, TimeUnit.SECONDS);
+                    final ListResult listResult = new ListResult();
+                    listResult.getList().add("server");
+                    listResult.setTotalCount(1L);
+                    return listResult;
+                }
+                return new Job();
+            });
+        service = new CallCoalescer().coalescing(delegate);
+    }
+
+    @After public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private Future<ListResult> listServers() {
+        return executor.submit(() -> service.listResources(null, null, ResourceType.SERVER));
+    }
+
+    private void awaitListCalls(final int calls) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (listCalls.get() < calls && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(calls, listCalls.get());
+    }
+
+    @Test public void identicalQueriesShareOneCallButNotTheList() throws Exception {
+        final Future<ListResult> first = listServers();
+        awaitListCalls(1);
+        final Future<ListResult> second = listServers();
+        Thread.sleep(100);
+        release.countDown();
+
+        final ListResult firstResult = first.get(10, TimeUnit.SECONDS);
+        final ListResult secondResult = second.get(10, TimeUnit.SECONDS);
+        assertEquals(1, listCalls.get());
+        assertNotSame(firstResult.getList(), secondResult.getList());
+        assertEquals(firstResult.getList(), secondResult.getList());
+    }
+
+    @Test public void sharedResultsKeepTheTotalCount() throws Exception {
+        final Future<ListResult> first = listServers();
+        awaitListCalls(1);
+        final Future<ListResult> second = listServers();
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals(1L, (long) first.get(10, TimeUnit.SECONDS).getTotalCount());
+        assertEquals(1L, (long) second.get(10, TimeUnit.SECONDS).getTotalCount());
+        assertEquals(1, listCalls.get());
+    }
+
+    @Test public void queriesAreNotSharedAcrossAChange() throws Exception {
+        final Future<ListResult> first = listServers();
+        awaitListCalls(1);
+
+        service.changeServerStatus("server", ServerStatus.STOPPED, true, null, null);
+        final Future<ListResult> second = listServers();
+        awaitListCalls(2);
+        release.countDown();
+
+        assertTrue(first.get(10, TimeUnit.SECONDS).getList().contains("server"));
+        assertTrue(second.get(10, TimeUnit.SECONDS).getList().contains("server"));
+    }
+
+    @Test public void changesOfOtherTypesDoNotStopSharing() throws Exception {
+        final Future<ListResult> first = executor
+            .submit(() -> service.listResources(null, null, ResourceType.IMAGE));
+        awaitListCalls(1);
+
+        service.changeServerStatus("server", ServerStatus.STOPPED, true, null, null);
+        final Future<ListResult> second = executor
+            .submit(() -> service.listResources(null, null, ResourceType.IMAGE));
+        Thread.sleep(100);
+        release.countDown();
+
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+        assertEquals(1, listCalls.get());
+    }
+}
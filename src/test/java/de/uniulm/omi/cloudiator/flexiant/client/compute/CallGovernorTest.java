@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.reflect.Reflection;
+import io.github.cloudiator.flexiant.extility.UserService;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the {@link CallGovernor} and its {@link CallGovernor.AdaptiveLimit}.
+ */
+public class CallGovernorTest {
+
+    @Test public void halvesTheLimitOncePerRoundTrip() throws Exception {
+        final CallGovernor.AdaptiveLimit limit = new CallGovernor.AdaptiveLimit(8, 1, 16);
+        Thread.sleep(1);
+
+        // four calls in flight at the same time, all of them slow
+        final long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            limit.acquire();
+        }
+        for (int i = 0; i < 4; i++) {
+            limit.release(start, true);
+        }
+        assertEquals(4, limit.get());
+
+        // a call started after the decrease belongs to the next round trip
+        Thread.sleep(1);
+        limit.acquire();
+        limit.release(System.nanoTime(), true);
+        assertEquals(2, limit.get());
+    }
+
+    @Test public void growsByAboutOnePerLimitOfSuccessfulCalls() throws Exception {
+        final CallGovernor.AdaptiveLimit limit = new CallGovernor.AdaptiveLimit(4, 1, 16);
+        for (int i = 0; i < 5; i++) {
+            limit.acquire();
+            limit.release(System.nanoTime(), false);
+        }
+        assertEquals(5, limit.get());
+    }
+
+    @Test public void waitingForAPortIsNoOverload() throws Exception {
+        final UserServicePool pool =
+            new UserServicePool(() -> Reflection.newProxy(UserService.class,
+                (proxy, method, args) -> {
+                    Thread.sleep(50);
+                    return null;
+                }), 2, 0);
+        final CallGovernor governor = new CallGovernor(
+            new GovernorConfiguration.GovernorConfigurationBuilder().concurrency(8, 1, 8)
+                .latencyThreshold(150, TimeUnit.MILLISECONDS).build(), 2);
+        final UserService service = governor.govern(pool.getService());
+        assertEquals(2, governor.getConcurrencyLimit());
+
+        // without the cap, the last calls would wait for a port longer than the threshold
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                calls.add(executor.submit(() -> service.waitForJob("job", true)));
+            }
+            for (Future<?> call : calls) {
+                call.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(2, governor.getConcurrencyLimit());
+    }
+}
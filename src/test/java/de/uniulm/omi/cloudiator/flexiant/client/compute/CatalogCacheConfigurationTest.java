@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the {@link CatalogCacheConfiguration}.
+ */
+public class CatalogCacheConfigurationTest {
+
+    @Test public void ttlCachesCatalogTypes() {
+        final CatalogCacheConfiguration configuration =
+            new CatalogCacheConfiguration.CatalogCacheConfigurationBuilder()
+                .ttl(ResourceType.IMAGE, 1, TimeUnit.MINUTES).build();
+        assertEquals(Long.valueOf(60000), configuration.getTtlMillis().get(ResourceType.IMAGE));
+    }
+
+    @Test(expected = IllegalArgumentException.class) public void ttlRejectsServers() {
+        new CatalogCacheConfiguration.CatalogCacheConfigurationBuilder()
+            .ttl(ResourceType.SERVER, 1, TimeUnit.MINUTES);
+    }
+
+    @Test(expected = IllegalArgumentException.class) public void ttlRejectsJobs() {
+        new CatalogCacheConfiguration.CatalogCacheConfigurationBuilder()
+            .ttl(ResourceType.JOB, 1, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the {@link CircuitBreaker}.
+ */
+public class CircuitBreakerTest {
+
+    @Test public void noBreakerByDefault() {
+        assertEquals(0, RetryConfiguration.defaults().getFailureThreshold());
+    }
+
+    @Test public void opensAfterConsecutiveTransientFailures() {
+        final CircuitBreaker breaker = new CircuitBreaker("endpoint", 2, 60000);
+
+        breaker.acquire();
+        breaker.onFailure(true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.acquire();
+        breaker.onFailure(true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test(expected = CircuitBreaker.OpenException.class) public void openBreakerFailsFast() {
+        final CircuitBreaker breaker = new CircuitBreaker("endpoint", 1, 60000);
+        breaker.onFailure(true);
+
+        breaker.acquire();
+    }
+
+    @Test public void breakersOfTheSameEndpointAreIndependent() {
+        final CircuitBreaker first = new CircuitBreaker("endpoint", 1, 60000);
+        final CircuitBreaker second = new CircuitBreaker("endpoint", 5, 60000);
+
+        first.onFailure(true);
+
+        assertEquals(CircuitBreaker.State.OPEN, first.getState());
+        assertEquals(CircuitBreaker.State.CLOSED, second.getState());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import org.junit.Test;
+
+import javax.xml.ws.WebServiceException;
+import javax.xml.ws.http.HTTPException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link FailureClassifier}.
+ */
+public class FailureClassifierTest {
+
+    @Test public void retriesAreOptIn() {
+        assertEquals(1, RetryConfiguration.defaults().getMaxAttempts());
+    }
+
+    @Test public void classifiesByHttpStatus() {
+        assertTrue(FailureClassifier.isTransient(new WebServiceException(new HTTPException(503))));
+        assertTrue(FailureClassifier.isThrottled(new HTTPException(429)));
+        assertFalse(FailureClassifier.isTransient(new HTTPException(500)));
+        assertFalse(FailureClassifier.isTransient(new HTTPException(404)));
+    }
+
+    @Test public void statusTakesPrecedenceOverTheMessage() {
+        final WebServiceException e =
+            new WebServiceException("Too many connections", new HTTPException(400));
+
+        assertEquals(400, FailureClassifier.httpStatus(e));
+        assertFalse(FailureClassifier.isThrottled(e));
+        assertFalse(FailureClassifier.isTransient(e));
+    }
+
+    @Test public void parsesTheStatusOfTransportExceptions() {
+        final WebServiceException e =
+            new WebServiceException("The server sent HTTP status code 502: Bad Gateway");
+
+        assertEquals(502, FailureClassifier.httpStatus(e));
+        assertTrue(FailureClassifier.isTransient(e));
+    }
+
+    @Test public void fallsBackToTheCauseWithoutStatus() {
+        assertTrue(FailureClassifier.isTransient(
+            new WebServiceException(new SocketTimeoutException("Read timed out"))));
+        assertTrue(FailureClassifier.isBeforeSend(
+            new WebServiceException(new ConnectException("Connection refused"))));
+        assertTrue(FailureClassifier.isTransient(new RuntimeException("rate limit exceeded")));
+        assertFalse(FailureClassifier.isTransient(new RuntimeException("invalid argument")));
+    }
+}
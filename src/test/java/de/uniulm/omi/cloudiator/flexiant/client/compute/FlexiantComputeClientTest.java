@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Location;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.LocationScope;
+import com.google.common.reflect.Reflection;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Server;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.ServerTemplate;
+import de.uniulm.omi.cloudiator.flexiant.client.fake.FakeFco;
+import de.uniulm.omi.cloudiator.flexiant.client.fake.SyntheticExtility;
+import io.github.cloudiator.flexiant.extility.UserService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link FlexiantComputeClient}, run against the {@link FakeFco}.
+ */
+public class FlexiantComputeClientTest {
+
+    private FakeFco fco;
+    private FlexiantComputeClient client;
+
+    @Before public void setUp() {
+        fco = new FakeFco.FakeFcoBuilder().clusters(3).jobDuration(10, TimeUnit.MILLISECONDS)
+            .build();
+        client = client(fco.service());
+    }
+
+    @After public void tearDown() {
+        client.close();
+        fco.close();
+    }
+
+    private static FlexiantComputeClient client(final UserService service) {
+        final ClientConfiguration configuration =
+            new ClientConfiguration.ClientConfigurationBuilder()
+                .jobPollInterval(10, TimeUnit.MILLISECONDS).build();
+        return new FlexiantComputeClient(
+            new FlexiantBaseClient("fake", "customer/user", configuration, () -> service));
+    }
+
+    /**
+     * Wraps the given service, recording the maximum number of concurrent calls
+     * submitting jobs.
+     */
+    private static UserService measuringSubmissions(final UserService service,
+        final AtomicInteger maxSubmissions) {
+        final AtomicInteger submissions = new AtomicInteger();
+        return Reflection.newProxy(UserService.class, (proxy, method, args) -> {
+            final boolean submission = !method.getName().equals("listResources");
+            if (submission) {
+                maxSubmissions.accumulateAndGet(submissions.incrementAndGet(), Math::max);
+            }
+            try {
+                return method.invoke(service, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (submission) {
+                    submissions.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    @Test public void getLocationsListsClustersAndVdcsWithOneCallEach() throws Exception {
+        final Set<Location> locations = client.getLocations();
+
+        assertEquals(2, fco.getCallCount("listResources"));
+        assertEquals(6, locations.size());
+        assertEquals(3,
+            locations.stream().filter(l -> l.getLocationScope() == LocationScope.CLUSTER)
+                .count());
+        assertEquals(3, locations.stream()
+            .filter(l -> l.getLocationScope() == LocationScope.VDC && l.getParent() != null)
+            .count());
+    }
+
+    @Test public void getServerByIpSearchesTheServers() throws Exception {
+        final String ip = SyntheticExtility.ipv4(42);
+
+        final Server server = client.getServerByIp(ip, null);
+
+        assertEquals(ip, server.getPublicIpAddress());
+        assertNull(client.getServerByIp("192.0.2.1", null));
+        assertEquals(2, fco.getCallCount("listResources"));
+    }
+
+    @Test public void getServerByIpRejectsEmptyIpsWithoutCalls() throws Exception {
+        try {
+            client.getServerByIp("", "prefix", null);
+            fail("Accepted an empty ip.");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(0, fco.getCallCount("listResources"));
+        }
+    }
+
+    @Test public void createServersBoundsCreationsAndStarts() throws Exception {
+        final FakeFco slowFco = new FakeFco.FakeFcoBuilder().latency(20, TimeUnit.MILLISECONDS)
+            .jobDuration(10, TimeUnit.MILLISECONDS).build();
+        final AtomicInteger maxSubmissions = new AtomicInteger();
+        try (FlexiantComputeClient slowClient = client(
+            measuringSubmissions(slowFco.service(), maxSubmissions))) {
+            final List<ServerTemplate> templates = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                templates.add(slowFco.template("bulk-" + i));
+            }
+
+            final List<OperationResult<Server>> results = slowClient.createServers(templates, 2);
+
+            assertEquals(8, results.size());
+            for (OperationResult<Server> result : results) {
+                assertTrue(String.valueOf(result), result.isSuccessful());
+            }
+            assertEquals(8, slowFco.getCallCount("changeServerStatus"));
+            assertTrue("Max submissions " + maxSubmissions, maxSubmissions.get() <= 2);
+        } finally {
+            slowFco.close();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.reflect.Reflection;
+import de.uniulm.omi.cloudiator.flexiant.client.api.FlexiantException;
+import de.uniulm.omi.cloudiator.flexiant.client.fake.FakeFco;
+import de.uniulm.omi.cloudiator.flexiant.client.metrics.MetricsListener;
+import io.github.cloudiator.flexiant.extility.Job;
+import io.github.cloudiator.flexiant.extility.JobStatus;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import io.github.cloudiator.flexiant.extility.Server;
+import io.github.cloudiator.flexiant.extility.ServerStatus;
+import io.github.cloudiator.flexiant.extility.UserService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link JobTracker}, run against the {@link FakeFco}.
+ */
+public class JobTrackerTest {
+
+    private FakeFco fco;
+
+    @Before public void setUp() {
+        fco = new FakeFco.FakeFcoBuilder().servers(1).jobDuration(10, TimeUnit.MILLISECONDS)
+            .build();
+    }
+
+    @After public void tearDown() {
+        fco.close();
+    }
+
+    private Job submitJob() throws Exception {
+        final Server server =
+            fco.getResources(ResourceType.SERVER, Server.class).iterator().next();
+        return fco.service()
+            .changeServerStatus(server.getResourceUUID(), ServerStatus.STOPPED, true, null, null);
+    }
+
+    private static Job unknownJob() {
+        final Job job = new Job();
+        job.setResourceUUID("unknown");
+        job.setStatus(JobStatus.IN_PROGRESS);
+        return job;
+    }
+
+    private static void assertFails(final CompletableFuture<Job> future) throws Exception {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("Expected the job to fail.");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof FlexiantException);
+        }
+    }
+
+    @Test public void tracksJobsUntilTheyFinish() throws Exception {
+        try (JobTracker jobTracker = new JobTracker(fco.service(), 5, 0)) {
+            final Job job = jobTracker.track(submitJob()).get(10, TimeUnit.SECONDS);
+            assertEquals(JobStatus.SUCCESSFUL, job.getStatus());
+        }
+    }
+
+    @Test public void pollFailuresAreResetAfterFailingAllJobs() throws Exception {
+        final UserService service = fco.service();
+        // enough failures to fail all jobs, and one more
+        final AtomicInteger failures = new AtomicInteger(11);
+        final UserService flaky = Reflection.newProxy(UserService.class, (proxy, method, args) -> {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("Injected failure.");
+            }
+            try {
+                return method.invoke(service, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+
+        try (JobTracker jobTracker = new JobTracker(flaky, 1, 0)) {
+            assertFails(jobTracker.track(unknownJob()));
+
+            final Job job = jobTracker.track(submitJob()).get(10, TimeUnit.SECONDS);
+            assertEquals(JobStatus.SUCCESSFUL, job.getStatus());
+        }
+    }
+
+    @Test public void closeFailsOutstandingAndLaterJobs() throws Exception {
+        final JobTracker jobTracker = new JobTracker(fco.service(), 1000, 0);
+        final CompletableFuture<Job> outstanding = jobTracker.track(unknownJob());
+
+        jobTracker.close();
+
+        assertFails(outstanding);
+        assertFails(jobTracker.track(unknownJob()));
+    }
+
+    @Test public void closeReportsTheFailedJobs() throws Exception {
+        final AtomicInteger failed = new AtomicInteger();
+        final JobTracker jobTracker = new JobTracker(fco.service(), 1000, 0,
+            new MetricsListener() {
+                @Override public void onJobFinished(final String jobUUID,
+                    final JobStatus status, final long durationNanos) {
+                    if (status == null) {
+                        failed.incrementAndGet();
+                    }
+                }
+            });
+        final CompletableFuture<Job> outstanding = jobTracker.track(unknownJob());
+
+        jobTracker.close();
+
+        assertFails(outstanding);
+        assertEquals(1, failed.get());
+    }
+
+    @Test public void jobsTrackedWhileClosingAreFailed() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 20; round++) {
+                final JobTracker jobTracker = new JobTracker(fco.service(), 1000, 0);
+                final CountDownLatch start = new CountDownLatch(1);
+                final List<Future<CompletableFuture<Job>>> tracked = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    final int job = i;
+                    tracked.add(executor.submit(() -> {
+                        start.await();
+                        final Job unknown = unknownJob();
+                        unknown.setResourceUUID("unknown-" + job);
+                        return jobTracker.track(unknown);
+                    }));
+                }
+                start.countDown();
+                jobTracker.close();
+
+                for (Future<CompletableFuture<Job>> future : tracked) {
+                    assertFails(future.get(10, TimeUnit.SECONDS));
+                }
+                assertEquals(0, jobTracker.getPendingJobs());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import de.uniulm.omi.cloudiator.flexiant.client.fake.FakeFco;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import io.github.cloudiator.flexiant.extility.SearchFilter;
+import io.github.cloudiator.flexiant.extility.Server;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the {@link PagedResourceIterator}.
+ */
+public class PagedResourceIteratorTest {
+
+    private FakeFco fco;
+
+    @After public void tearDown() {
+        fco.close();
+    }
+
+    /**
+     * Lists all servers of a fake with the given number of servers page by page.
+     *
+     * @return the uuids of the listed servers, in the order they were listed.
+     */
+    private List<String> list(final int servers, final int pageSize) {
+        fco = new FakeFco.FakeFcoBuilder().servers(servers).build();
+        final List<String> uuids = new ArrayList<>();
+        new PagedResourceIterator<>(fco.service(), new SearchFilter(), ResourceType.SERVER,
+            Server.class, pageSize).forEachRemaining(server -> uuids.add(server.getResourceUUID()));
+        return uuids;
+    }
+
+    private void assertAllServersOnce(final List<String> uuids) {
+        final List<String> expected = new ArrayList<>();
+        for (Server server : fco.getResources(ResourceType.SERVER, Server.class)) {
+            expected.add(server.getResourceUUID());
+        }
+        assertEquals(uuids.size(), new HashSet<>(uuids).size());
+        assertEquals(new HashSet<>(expected), new HashSet<>(uuids));
+    }
+
+    @Test public void listsEveryResourceOnceOverSeveralPages() {
+        final List<String> uuids = list(25, 10);
+
+        assertEquals(25, uuids.size());
+        assertAllServersOnce(uuids);
+        assertEquals(3, fco.getCallCount("listResources"));
+    }
+
+    @Test public void requestsAnEmptyPageAfterAnExactMultipleOfThePageSize() {
+        final List<String> uuids = list(20, 10);
+
+        assertEquals(20, uuids.size());
+        assertAllServersOnce(uuids);
+        assertEquals(3, fco.getCallCount("listResources"));
+    }
+
+    @Test public void listsNothingWithoutResources() {
+        assertEquals(0, list(0, 10).size());
+        assertEquals(1, fco.getCallCount("listResources"));
+    }
+
+    @Test public void listsInTheOrderOfTheUuids() {
+        final List<String> uuids = list(25, 10);
+        final List<String> sorted = new ArrayList<>(uuids);
+        sorted.sort(String::compareTo);
+
+        assertEquals(sorted, uuids);
+    }
+}
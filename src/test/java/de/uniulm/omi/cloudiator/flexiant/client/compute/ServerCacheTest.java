@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import de.uniulm.omi.cloudiator.flexiant.client.domain.Server;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests of the {@link ServerCache}.
+ */
+public class ServerCacheTest {
+
+    private static Server server(final String status) {
+        return new Server("server", status, "vdc", null, null, null);
+    }
+
+    @Test public void loadsAreCached() throws Exception {
+        final ServerCache cache = new ServerCache(60000);
+        final AtomicInteger loads = new AtomicInteger();
+        final Server server = server("running");
+
+        cache.getServer("server", () -> {
+            loads.incrementAndGet();
+            return server;
+        });
+        assertSame(server, cache.getServer("server", () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertEquals(1, loads.get());
+    }
+
+    @Test public void serverLoadRacingWithInvalidationIsNotCached() throws Exception {
+        final ServerCache cache = new ServerCache(60000);
+        final Server stale = server("running");
+        final Server current = server("stopped");
+
+        // the status changes after the load read the server, but before it completed
+        cache.getServer("server", () -> {
+            cache.invalidate("server");
+            return stale;
+        });
+        assertSame(current, cache.getServer("server", () -> current));
+    }
+
+    @Test public void listLoadRacingWithInvalidationIsNotCached() throws Exception {
+        final ServerCache cache = new ServerCache(60000);
+        final Set<Server> stale = Collections.singleton(server("running"));
+        final Set<Server> current = Collections.singleton(server("stopped"));
+
+        cache.getServers(null, () -> {
+            cache.invalidate("server");
+            return stale;
+        });
+        assertEquals(current, cache.getServers(null, () -> current));
+        assertSame(current.iterator().next(), cache.getServer("server", () -> null));
+    }
+}
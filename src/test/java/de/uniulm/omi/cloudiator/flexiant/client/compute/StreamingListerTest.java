@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.reflect.AbstractInvocationHandler;
+import com.google.common.reflect.Reflection;
+import de.uniulm.omi.cloudiator.flexiant.client.fake.FakeFco;
+import io.github.cloudiator.flexiant.extility.ExtilityException;
+import io.github.cloudiator.flexiant.extility.ListResult;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import io.github.cloudiator.flexiant.extility.SearchFilter;
+import io.github.cloudiator.flexiant.extility.UserService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.soap.Detail;
+import javax.xml.soap.SOAPFault;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.ws.Dispatch;
+import javax.xml.ws.soap.SOAPFaultException;
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link StreamingLister}.
+ */
+public class StreamingListerTest {
+
+    private FakeFco fco;
+    private AtomicInteger dispatched;
+
+    @Before public void setUp() {
+        fco = new FakeFco.FakeFcoBuilder().build();
+        dispatched = new AtomicInteger();
+    }
+
+    @After public void tearDown() {
+        fco.close();
+    }
+
+    /**
+     * @param response supplies the payload of every dispatched call.
+     * @return the port of the fake, listing on a dispatch serving the given payloads.
+     */
+    @SuppressWarnings("unchecked") private UserService streaming(
+        final Supplier<Source> response) {
+        final Dispatch<Source> dispatch =
+            Reflection.newProxy(Dispatch.class, new AbstractInvocationHandler() {
+                @Override protected Object handleInvocation(Object proxy, Method method,
+                    Object[] args) {
+                    assertEquals("invoke", method.getName());
+                    dispatched.incrementAndGet();
+                    return response.get();
+                }
+            });
+        return new StreamingLister(dispatch).streaming(fco.service());
+    }
+
+    private static Source payload(final String xml) {
+        return new StreamSource(new StringReader(xml));
+    }
+
+    /**
+     * @param message the fault string.
+     * @param detail  the detail entries of the fault, none for a fault without detail.
+     * @return the fault.
+     */
+    private static SOAPFaultException fault(final String message, final Node... detail) {
+        final Detail faultDetail =
+            Reflection.newProxy(Detail.class, new AbstractInvocationHandler() {
+                @Override protected Object handleInvocation(Object proxy, Method method,
+                    Object[] args) {
+                    assertEquals("getDetailEntries", method.getName());
+                    return Arrays.asList(detail).iterator();
+                }
+            });
+        return new SOAPFaultException(
+            Reflection.newProxy(SOAPFault.class, new AbstractInvocationHandler() {
+                @Override protected Object handleInvocation(Object proxy, Method method,
+                    Object[] args) {
+                    switch (method.getName()) {
+                        case "getFaultString":
+                            return message;
+                        case "getDetail":
+                            return detail.length == 0 ? null : faultDetail;
+                        default:
+                            return null;
+                    }
+                }
+            }));
+    }
+
+    private static Node element(final String xml) throws Exception {
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().parse(new InputSource(new StringReader(xml)))
+            .getDocumentElement();
+    }
+
+    @Test public void parsesTheResponse() throws Exception {
+        final ListResult result = streaming(() -> payload(
+            "<listResourcesResponse><listResult><totalCount>0</totalCount></listResult>"
+                + "</listResourcesResponse>"))
+            .listResources(new SearchFilter(), null, ResourceType.SERVER);
+
+        assertEquals(0, result.getList().size());
+        assertEquals(1, dispatched.get());
+        assertEquals(0, fco.getCallCount("listResources"));
+    }
+
+    @Test public void rethrowsFaultsWithoutRepeatingTheCall() throws Exception {
+        final UserService service = streaming(() -> {
+            throw fault("Permission denied");
+        });
+        try {
+            service.listResources(new SearchFilter(), null, ResourceType.SERVER);
+            fail("Expected the fault.");
+        } catch (ExtilityException e) {
+            assertEquals("Permission denied", e.getMessage());
+            assertNull(e.getFaultInfo());
+        }
+        assertEquals(1, dispatched.get());
+        assertEquals(0, fco.getCallCount("listResources"));
+    }
+
+    @Test public void unmarshalsTheFaultDetail() throws Exception {
+        final Node detail = element("<ExtilityException xmlns=\"http://extility.flexiant.net\"/>");
+        final UserService service = streaming(() -> {
+            throw fault("Invalid filter", detail);
+        });
+        try {
+            service.listResources(new SearchFilter(), null, ResourceType.SERVER);
+            fail("Expected the fault.");
+        } catch (ExtilityException e) {
+            assertEquals("Invalid filter", e.getMessage());
+            assertNotNull(e.getFaultInfo());
+        }
+    }
+
+    @Test public void repeatsUnparsableResponsesOnThePort() throws Exception {
+        final ListResult result = streaming(() -> payload(
+            "<listResourcesResponse><listResult><totalCount>many</totalCount></listResult>"
+                + "</listResourcesResponse>"))
+            .listResources(new SearchFilter(), null, ResourceType.SERVER);
+
+        assertEquals(fco.getResources(ResourceType.SERVER, Object.class).size(),
+            result.getList().size());
+        assertEquals(1, dispatched.get());
+        assertEquals(1, fco.getCallCount("listResources"));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.ws.Dispatch;
+import javax.xml.ws.Service;
+import javax.xml.ws.WebServiceException;
+import javax.xml.ws.soap.SOAPBinding;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link TransportConfiguration}, applied to a dispatch calling a local http
+ * server.
+ */
+public class TransportConfigurationTest {
+
+    private static final String NAMESPACE = "urn:transport-test";
+    private static final QName PORT = new QName(NAMESPACE, "TestPort");
+    private static final String RESPONSE =
+        "<S:Envelope xmlns:S=\"http://schemas.xmlsoap.org/soap/envelope/\"><S:Body>"
+            + "<pong xmlns=\"" + NAMESPACE + "\"/></S:Body></S:Envelope>";
+
+    private ExecutorService executor;
+    private HttpServer server;
+    private volatile Headers requestHeaders;
+    private volatile String requestBody;
+
+    @Before public void setUp() throws IOException {
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/echo", this::respond);
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange);
+        });
+        server.start();
+    }
+
+    @After public void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void respond(final HttpExchange exchange) throws IOException {
+        requestHeaders = exchange.getRequestHeaders();
+        InputStream body = exchange.getRequestBody();
+        if ("gzip".equals(requestHeaders.getFirst("Content-Encoding"))) {
+            body = new GZIPInputStream(body);
+        }
+        requestBody = new String(ByteStreams.toByteArray(body), StandardCharsets.UTF_8);
+
+        final byte[] response = RESPONSE.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=utf-8");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private Dispatch<Source> dispatch(final String path,
+        final TransportConfiguration configuration) {
+        final Service service = Service.create(new QName(NAMESPACE, "TestService"));
+        service.addPort(PORT, SOAPBinding.SOAP11HTTP_BINDING, String
+            .format("http://%s:%d%s", server.getAddress().getHostString(),
+                server.getAddress().getPort(), path));
+        final Dispatch<Source> dispatch =
+            service.createDispatch(PORT, Source.class, Service.Mode.PAYLOAD);
+        configuration.applyTo(dispatch);
+        return dispatch;
+    }
+
+    private static Source ping() {
+        return new StreamSource(new StringReader("<ping xmlns=\"" + NAMESPACE + "\"/>"));
+    }
+
+    @Test public void sendsTheCompressionHeaders() {
+        final TransportConfiguration configuration =
+            new TransportConfiguration.TransportConfigurationBuilder().gzipRequests(true)
+                .gzipResponses(true).build();
+
+        dispatch("/echo", configuration).invoke(ping());
+
+        assertEquals("gzip", requestHeaders.getFirst("Content-Encoding"));
+        assertEquals("gzip", requestHeaders.getFirst("Accept-Encoding"));
+        assertTrue(requestBody, requestBody.contains("ping"));
+    }
+
+    @Test public void sendsNoCompressionHeadersByDefault() {
+        dispatch("/echo", TransportConfiguration.defaults()).invoke(ping());
+
+        assertEquals(null, requestHeaders.getFirst("Content-Encoding"));
+        assertTrue(requestBody, requestBody.contains("ping"));
+    }
+
+    @Test public void readTimeoutFires() {
+        final TransportConfiguration configuration =
+            new TransportConfiguration.TransportConfigurationBuilder()
+                .readTimeout(200, TimeUnit.MILLISECONDS).build();
+        final Dispatch<Source> dispatch = dispatch("/slow", configuration);
+
+        final long start = System.nanoTime();
+        try {
+            dispatch.invoke(ping());
+            fail("Expected the read to time out.");
+        } catch (WebServiceException e) {
+            assertTrue(FailureClassifier.isTransient(e));
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.compute;
+
+import com.google.common.reflect.Reflection;
+import io.github.cloudiator.flexiant.extility.UserService;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.ws.WebServiceException;
+import javax.xml.ws.http.HTTPException;
+import java.net.SocketException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link UserServicePool}.
+ */
+public class UserServicePoolTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+    private volatile RuntimeException failure;
+    private UserServicePool pool;
+
+    @Before public void setUp() {
+        final Supplier<UserService> portFactory = () -> {
+            created.incrementAndGet();
+            return Reflection.newProxy(UserService.class, (proxy, method, args) -> {
+                if (failure != null) {
+                    throw failure;
+                }
+                return null;
+            });
+        };
+        pool = new UserServicePool(portFactory, 1, 1000);
+    }
+
+    private void call() throws Exception {
+        pool.getService().waitForJob("job", true);
+    }
+
+    private void callFailing(final RuntimeException e) throws Exception {
+        failure = e;
+        try {
+            call();
+            fail("Expected " + e);
+        } catch (RuntimeException expected) {
+            assertEquals(e, expected);
+        } finally {
+            failure = null;
+        }
+    }
+
+    @Test public void reusesPorts() throws Exception {
+        call();
+        call();
+
+        assertEquals(1, created.get());
+    }
+
+    @Test public void discardsPortsAfterTransportFailures() throws Exception {
+        callFailing(new WebServiceException(new SocketException("Connection reset")));
+        call();
+
+        assertEquals(2, created.get());
+    }
+
+    @Test public void keepsPortsAfterProtocolFailures() throws Exception {
+        callFailing(new HTTPException(503));
+        call();
+
+        assertEquals(1, created.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class) public void rejectsForeignPorts() {
+        pool.release(Reflection.newProxy(UserService.class, (proxy, method, args) -> null));
+    }
+
+    @Test public void rejectsDoubleReleases() {
+        final UserService port = pool.borrow();
+        pool.release(port);
+        try {
+            pool.release(port);
+            fail("Released twice.");
+        } catch (IllegalArgumentException expected) {
+            // the permit was not returned twice
+        }
+
+        pool.release(pool.borrow());
+        assertEquals(1, created.get());
+    }
+
+    @Test public void discardingReturnsThePermit() {
+        pool.discard(pool.borrow());
+
+        pool.release(pool.borrow());
+        assertEquals(2, created.get());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.domain;
+
+import de.uniulm.omi.cloudiator.flexiant.client.fake.SyntheticExtility;
+import org.junit.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the heap retained by a large server inventory.
+ */
+public class ServerFootprintTest {
+
+    private static final int SERVERS = 10000;
+
+    /**
+     * The object itself and the strings of its uuid, name and ip address, with some headroom
+     * for jvms without compact strings. The location uuids and credentials are shared.
+     */
+    private static final long MAX_BYTES_PER_SERVER = 384;
+
+    @Test public void snapshotsRetainOnlyTheirFields() {
+        final List<Server> snapshots =
+            SyntheticExtility.servers(SERVERS, SyntheticExtility.clusters(10)).stream()
+                .map(Server::new).collect(Collectors.toList());
+
+        final GraphLayout layout = GraphLayout.parseInstance(snapshots.toArray());
+
+        final long bytesPerServer = layout.totalSize() / SERVERS;
+        assertTrue(String.format("%d bytes per server, expected at most %d.%n%s", bytesPerServer,
+            MAX_BYTES_PER_SERVER, layout.toFootprint()),
+            bytesPerServer <= MAX_BYTES_PER_SERVER);
+        for (Class<?> clazz : layout.getClasses()) {
+            assertFalse(clazz + " is retained.",
+                clazz.getName().startsWith("io.github.cloudiator.flexiant.extility."));
+        }
+    }
+
+    @SuppressWarnings("deprecation") @Test public void onlyRetainsTheServerIfAsked() {
+        final io.github.cloudiator.flexiant.extility.Server server =
+            SyntheticExtility.servers(1, SyntheticExtility.clusters(1)).get(0);
+
+        assertNull(new RetainingServer(server, false).getServer());
+        assertSame(server, new RetainingServer(server, true).getServer());
+    }
+
+    private static class RetainingServer extends Server {
+
+        RetainingServer(final io.github.cloudiator.flexiant.extility.Server server,
+            final boolean retain) {
+            super(server, retain);
+        }
+    }
+}
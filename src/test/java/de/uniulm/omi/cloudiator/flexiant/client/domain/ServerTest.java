@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.domain;
+
+import io.github.cloudiator.flexiant.extility.Ip;
+import io.github.cloudiator.flexiant.extility.IpType;
+import io.github.cloudiator.flexiant.extility.NetworkType;
+import io.github.cloudiator.flexiant.extility.Nic;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests of the {@link Server} snapshot.
+ */
+public class ServerTest {
+
+    private static io.github.cloudiator.flexiant.extility.Server server(final Nic... nics) {
+        final io.github.cloudiator.flexiant.extility.Server server =
+            new io.github.cloudiator.flexiant.extility.Server();
+        server.setResourceUUID("server");
+        server.setResourceName("name");
+        server.setClusterUUID("cluster");
+        for (Nic nic : nics) {
+            server.getNics().add(nic);
+        }
+        return server;
+    }
+
+    private static Nic nic(final NetworkType networkType, final Ip... ips) {
+        final Nic nic = new Nic();
+        nic.setNetworkType(networkType);
+        for (Ip ip : ips) {
+            nic.getIpAddresses().add(ip);
+        }
+        return nic;
+    }
+
+    private static Ip ip(final IpType type, final String address) {
+        final Ip ip = new Ip();
+        ip.setType(type);
+        ip.setIpAddress(address);
+        return ip;
+    }
+
+    @Test public void findsTheIpv4AddressOfAnIpNetwork() {
+        final Server server = new Server(server(nic(NetworkType.NETWORK),
+            nic(NetworkType.IP, ip(IpType.IPV_6, "fd00::1"), ip(IpType.IPV_4, "10.0.0.1"))));
+
+        assertEquals("10.0.0.1", server.getPublicIpAddress());
+        assertEquals("cluster", server.getLocationUUID());
+    }
+
+    @Test public void skipsNicsAndIpsWithoutType() {
+        final Server server = new Server(server(nic(null, ip(IpType.IPV_4, "10.0.0.1")),
+            nic(NetworkType.IP, ip(null, "10.0.0.2"), ip(IpType.IPV_4, "10.0.0.3"))));
+
+        assertEquals("10.0.0.3", server.getPublicIpAddress());
+    }
+
+    @Test public void acceptsServersWithoutLocation() {
+        final io.github.cloudiator.flexiant.extility.Server extility = server();
+        extility.setClusterUUID(null);
+
+        final Server server = new Server(extility);
+
+        assertNull(server.getLocationUUID());
+        assertNull(server.getPublicIpAddress());
+        assertEquals(server, new Server("server", "name", null, null, null, null));
+    }
+}
@@ -0,0 +1,638 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.fake;
+
+import com.google.common.reflect.AbstractInvocationHandler;
+import com.google.common.reflect.Reflection;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.uniulm.omi.cloudiator.flexiant.client.domain.ServerTemplate;
+import io.github.cloudiator.flexiant.extility.Cluster;
+import io.github.cloudiator.flexiant.extility.Condition;
+import io.github.cloudiator.flexiant.extility.FilterCondition;
+import io.github.cloudiator.flexiant.extility.Image;
+import io.github.cloudiator.flexiant.extility.Ip;
+import io.github.cloudiator.flexiant.extility.IpType;
+import io.github.cloudiator.flexiant.extility.Job;
+import io.github.cloudiator.flexiant.extility.JobStatus;
+import io.github.cloudiator.flexiant.extility.ListResult;
+import io.github.cloudiator.flexiant.extility.Network;
+import io.github.cloudiator.flexiant.extility.NetworkType;
+import io.github.cloudiator.flexiant.extility.Nic;
+import io.github.cloudiator.flexiant.extility.OrderedField;
+import io.github.cloudiator.flexiant.extility.ProductOffer;
+import io.github.cloudiator.flexiant.extility.QueryLimit;
+import io.github.cloudiator.flexiant.extility.Resource;
+import io.github.cloudiator.flexiant.extility.ResourceType;
+import io.github.cloudiator.flexiant.extility.ResultOrder;
+import io.github.cloudiator.flexiant.extility.SearchFilter;
+import io.github.cloudiator.flexiant.extility.Server;
+import io.github.cloudiator.flexiant.extility.ServerStatus;
+import io.github.cloudiator.flexiant.extility.UserService;
+import io.github.cloudiator.flexiant.extility.Vdc;
+
+import javax.xml.ws.Endpoint;
+import javax.xml.ws.soap.SOAPFaultException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * In-process stand-in for the FCO user api, for testing the client without an FCO account.
+ * <p>
+ * Keeps clusters, vdcs, networks, images, product offers, servers and jobs in memory and
+ * serves the operations used by the compute client: listResources, createServer,
+ * deleteResource, changeServerStatus and waitForJob. Jobs finish after the configured
+ * duration, and only then take effect. Every request can be delayed, throttled or
+ * failed. Errors are reported as plain SOAP faults, which the client surfaces as
+ * {@link javax.xml.ws.soap.SOAPFaultException}.
+ * <p>
+ * The fake can either be published over http with {@link #start(String)}, or be called
+ * directly through {@link #service()}. The http endpoint does not serve a WSDL, so clients
+ * must be configured to use the bundled one.
+ */
+public class FakeFco implements AutoCloseable {
+
+    private final long latencyMillis;
+    private final long jobDurationMillis;
+    private final double errorRate;
+    private final double jobFailureRate;
+    private final RateLimiter rateLimiter;
+    private final Map<ResourceType, ConcurrentMap<String, Object>> resources;
+    private final ConcurrentMap<String, CompletableFuture<Job>> jobFutures;
+    private final ConcurrentMap<String, Method> getters;
+    private final AtomicInteger ipCounter;
+    private final ConcurrentMap<String, LongAdder> callCounts;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService requestExecutor;
+    private Endpoint endpoint;
+    private String address;
+
+    private FakeFco(final FakeFcoBuilder builder) {
+        this.latencyMillis = builder.latencyMillis;
+        this.jobDurationMillis = builder.jobDurationMillis;
+        this.errorRate = builder.errorRate;
+        this.jobFailureRate = builder.jobFailureRate;
+        this.rateLimiter =
+            builder.maxRequestsPerSecond > 0 ? RateLimiter.create(builder.maxRequestsPerSecond) :
+                null;
+        this.resources = new EnumMap<>(ResourceType.class);
+        for (ResourceType resourceType : ResourceType.values()) {
+            this.resources.put(resourceType, new ConcurrentHashMap<>());
+        }
+        this.jobFutures = new ConcurrentHashMap<>();
+        this.getters = new ConcurrentHashMap<>();
+        this.ipCounter = new AtomicInteger(builder.servers);
+        this.callCounts = new ConcurrentHashMap<>();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("fake-fco-jobs-%d").setDaemon(true).build());
+        this.requestExecutor = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("fake-fco-request-%d").setDaemon(true)
+                .build());
+        seed(builder);
+    }
+
+    private void seed(final FakeFcoBuilder builder) {
+        final List<Cluster> clusters = SyntheticExtility.clusters(builder.clusters);
+        final Map<String, String> vdcOfCluster = new ConcurrentHashMap<>();
+        for (Cluster cluster : clusters) {
+            put(ResourceType.CLUSTER, cluster);
+
+            final Vdc vdc = new Vdc();
+            vdc.setResourceUUID(UUID.randomUUID().toString());
+            vdc.setResourceName("vdc-" + cluster.getResourceName());
+            vdc.setClusterUUID(cluster.getResourceUUID());
+            put(ResourceType.VDC, vdc);
+            vdcOfCluster.put(cluster.getResourceUUID(), vdc.getResourceUUID());
+
+            final Network network = new Network();
+            network.setResourceUUID(UUID.randomUUID().toString());
+            network.setResourceName("network-" + cluster.getResourceName());
+            network.setClusterUUID(cluster.getResourceUUID());
+            network.setVdcUUID(vdc.getResourceUUID());
+            put(ResourceType.NETWORK, network);
+
+            for (int i = 0; i < builder.imagesPerVdc; i++) {
+                final Image image = new Image();
+                image.setResourceUUID(UUID.randomUUID().toString());
+                image.setResourceName("image-" + i);
+                image.setClusterUUID(cluster.getResourceUUID());
+                image.setVdcUUID(vdc.getResourceUUID());
+                image.setDefaultUser("root");
+                put(ResourceType.IMAGE, image);
+            }
+        }
+        for (ProductOffer productOffer : SyntheticExtility
+            .productOffers(builder.machineOffers, builder.diskOffers, clusters)) {
+            put(ResourceType.PRODUCTOFFER, productOffer);
+        }
+        for (Server server : SyntheticExtility.servers(builder.servers, clusters)) {
+            server.setVdcUUID(vdcOfCluster.get(server.getClusterUUID()));
+            server.setStatus(ServerStatus.RUNNING);
+            put(ResourceType.SERVER, server);
+        }
+    }
+
+    /**
+     * Publishes the fake at the given address.
+     *
+     * @param address the http address, e.g. http://localhost:8080/fco.
+     * @return this fake.
+     */
+    public synchronized FakeFco start(final String address) {
+        checkNotNull(address);
+        checkState(endpoint == null, "Already started.");
+        this.endpoint = Endpoint.create(new FakeFcoProvider(this));
+        this.endpoint.setExecutor(requestExecutor);
+        this.endpoint.publish(address);
+        this.address = address;
+        return this;
+    }
+
+    /**
+     * @return the address the fake is published at.
+     */
+    public synchronized String getAddress() {
+        checkState(address != null, "Not started.");
+        return address;
+    }
+
+    /**
+     * Returns the resources of the given type.
+     *
+     * @param resourceType the type of the resources.
+     * @param clazz        the class of the resources.
+     * @param <T>          the type of the resources.
+     * @return a snapshot of the resources.
+     */
+    public <T> List<T> getResources(final ResourceType resourceType, final Class<T> clazz) {
+        return resources.get(resourceType).values().stream().map(clazz::cast)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns a view of the fake as user service, which calls the fake directly instead of
+     * going through http.
+     * <p>
+     * Failed requests throw a {@link SOAPFaultException}, like the http endpoint does.
+     * The returned objects are the ones held by the fake, so they must not be modified.
+     *
+     * @return the user service.
+     */
+    public UserService service() {
+        return Reflection.newProxy(UserService.class, new AbstractInvocationHandler() {
+            @Override protected Object handleInvocation(final Object proxy, final Method method,
+                final Object[] args) {
+                try {
+                    return handle(method.getName(), type -> argumentOf(args, type));
+                } catch (FakeFault e) {
+                    throw FakeFcoProvider.fault(e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the number of requests of the given operation, including failed ones.
+     *
+     * @param operation the name of the operation, e.g. listResources.
+     * @return the number of requests.
+     */
+    public long getCallCount(final String operation) {
+        final LongAdder count = callCounts.get(operation);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Resets the request counts of all operations.
+     */
+    public void resetCallCounts() {
+        callCounts.clear();
+    }
+
+    /**
+     * Returns a template for a server in the first vdc, using one of its images.
+     *
+     * @param serverName the name of the server.
+     * @return the template.
+     */
+    public ServerTemplate template(final String serverName) {
+        final Image image = getResources(ResourceType.IMAGE, Image.class).stream()
+            .min(Comparator.comparing(Image::getResourceUUID))
+            .orElseThrow(() -> new IllegalStateException("The fake has no images."));
+        return new ServerTemplate.FlexiantServerTemplateBuilder().serverName(serverName)
+            .serverProductOffer("machine").diskProductOffer("disk").vdc(image.getVdcUUID())
+            .image(image.getResourceUUID()).build();
+    }
+
+    @Override public synchronized void close() {
+        if (endpoint != null) {
+            endpoint.stop();
+        }
+        scheduler.shutdownNow();
+        requestExecutor.shutdownNow();
+    }
+
+    /**
+     * Handles a request.
+     *
+     * @param operation the name of the operation.
+     * @param arguments looks up the argument of the given type, null if it is not set.
+     * @return the result of the operation.
+     * @throws FakeFault if the request is failed.
+     */
+    Object handle(final String operation, final Function<Class<?>, Object> arguments) {
+        callCounts.computeIfAbsent(operation, key -> new LongAdder()).increment();
+        if (rateLimiter != null && !rateLimiter.tryAcquire()) {
+            throw new FakeFault("Too many requests, rate limit exceeded.");
+        }
+        if (latencyMillis > 0) {
+            sleep(latencyMillis);
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            throw new FakeFault("Injected failure of " + operation + ".");
+        }
+        switch (operation) {
+            case "listResources":
+                return listResources(argument(arguments, SearchFilter.class),
+                    argument(arguments, QueryLimit.class),
+                    argument(arguments, ResourceType.class));
+            case "createServer":
+                return createServer(argument(arguments, Server.class));
+            case "deleteResource":
+                return deleteResource(argument(arguments, String.class));
+            case "changeServerStatus":
+                return changeServerStatus(argument(arguments, String.class),
+                    argument(arguments, ServerStatus.class));
+            case "waitForJob":
+                return waitForJob(argument(arguments, String.class));
+            default:
+                throw new FakeFault("Operation " + operation + " is not supported by the fake.");
+        }
+    }
+
+    private static <T> T argument(final Function<Class<?>, Object> arguments,
+        final Class<T> type) {
+        return type.cast(arguments.apply(type));
+    }
+
+    private static Object argumentOf(final Object[] args, final Class<?> type) {
+        for (Object arg : args) {
+            if (type.isInstance(arg)) {
+                return arg;
+            }
+        }
+        return null;
+    }
+
+    private ListResult listResources(final SearchFilter searchFilter,
+        final QueryLimit queryLimit, final ResourceType resourceType) {
+        checkNotNull(resourceType);
+        final List<Object> matches = new ArrayList<>();
+        for (Object resource : resources.get(resourceType).values()) {
+            if (matches(resource, searchFilter)) {
+                matches.add(resource);
+            }
+        }
+        if (queryLimit == null || queryLimit.getOrderBy().isEmpty()) {
+            // like the api, the order is not stable unless requested
+            Collections.shuffle(matches, ThreadLocalRandom.current());
+        } else {
+            matches.sort(comparator(queryLimit.getOrderBy()));
+        }
+
+        int from = 0;
+        int to = matches.size();
+        if (queryLimit != null) {
+            if (queryLimit.getFrom() != null) {
+                from = Math.min(to, queryLimit.getFrom());
+            }
+            if (queryLimit.getMaxRecords() != null && queryLimit.getMaxRecords() > 0) {
+                to = Math.min(to, from + queryLimit.getMaxRecords());
+            }
+        }
+        final ListResult listResult = new ListResult();
+        listResult.getList().addAll(matches.subList(from, to));
+        return listResult;
+    }
+
+    private Comparator<Object> comparator(final List<OrderedField> orderBy) {
+        Comparator<Object> comparator = (first, second) -> 0;
+        for (OrderedField orderedField : orderBy) {
+            final Comparator<Object> byField = Comparator
+                .comparing(o -> String.valueOf(property(o, orderedField.getFieldName())));
+            comparator = comparator.thenComparing(
+                orderedField.getSortOrder() == ResultOrder.DESC ? byField.reversed() : byField);
+        }
+        return comparator;
+    }
+
+    private boolean matches(final Object resource, final SearchFilter searchFilter) {
+        if (searchFilter == null) {
+            return true;
+        }
+        for (FilterCondition filterCondition : searchFilter.getFilterConditions()) {
+            final Object value = property(resource, filterCondition.getField());
+            if (value == null) {
+                return false;
+            }
+            final String string =
+                value instanceof Enum ? ((Enum<?>) value).name() : String.valueOf(value);
+            boolean matches = false;
+            for (String candidate : filterCondition.getValue()) {
+                if (filterCondition.getCondition() == Condition.IS_EQUAL_TO) {
+                    matches |= string.equals(candidate);
+                } else if (filterCondition.getCondition() == Condition.STARTS_WITH) {
+                    matches |= string.startsWith(candidate);
+                } else {
+                    throw new FakeFault(
+                        "Condition " + filterCondition.getCondition() + " is not supported.");
+                }
+            }
+            if (!matches) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object property(final Object resource, final String field) {
+        final String name = Character.toUpperCase(field.charAt(0)) + field.substring(1);
+        final Method getter = getters.computeIfAbsent(resource.getClass().getName() + "#" + field,
+            key -> {
+                for (Method method : resource.getClass().getMethods()) {
+                    if (method.getParameterCount() == 0 && (method.getName().equals("get" + name)
+                        || method.getName().equals("is" + name))) {
+                        return method;
+                    }
+                }
+                throw new FakeFault("Unknown field " + field + ".");
+            });
+        try {
+            return getter.invoke(resource);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Job createServer(final Server server) {
+        checkNotNull(server);
+        final Vdc vdc = (Vdc) resources.get(ResourceType.VDC).get(server.getVdcUUID());
+        if (vdc == null) {
+            throw new FakeFault("Vdc " + server.getVdcUUID() + " does not exist.");
+        }
+        server.setResourceUUID(UUID.randomUUID().toString());
+        server.setClusterUUID(vdc.getClusterUUID());
+        server.setStatus(ServerStatus.STOPPED);
+        for (Nic nic : server.getNics()) {
+            nic.setNetworkType(NetworkType.IP);
+            final Ip ip = new Ip();
+            ip.setType(IpType.IPV_4);
+            ip.setIpAddress(SyntheticExtility.ipv4(ipCounter.getAndIncrement()));
+            nic.getIpAddresses().add(ip);
+        }
+        return submit(server.getResourceUUID(), () -> put(ResourceType.SERVER, server));
+    }
+
+    private Job deleteResource(final String resourceUUID) {
+        checkNotNull(resourceUUID);
+        final ConcurrentMap<String, Object> owner = ownerOf(resourceUUID);
+        return submit(resourceUUID, () -> owner.remove(resourceUUID));
+    }
+
+    private Job changeServerStatus(final String serverUUID, final ServerStatus status) {
+        checkNotNull(serverUUID);
+        checkNotNull(status);
+        final Server server = (Server) resources.get(ResourceType.SERVER).get(serverUUID);
+        if (server == null) {
+            throw new FakeFault("Server " + serverUUID + " does not exist.");
+        }
+        return submit(serverUUID, () -> server.setStatus(status));
+    }
+
+    private Job waitForJob(final String jobUUID) {
+        final CompletableFuture<Job> future = jobFutures.get(jobUUID);
+        if (future == null) {
+            throw new FakeFault("Job " + jobUUID + " does not exist.");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FakeFault("Interrupted while waiting for job " + jobUUID + ".");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ConcurrentMap<String, Object> ownerOf(final String resourceUUID) {
+        for (ConcurrentMap<String, Object> map : resources.values()) {
+            if (map.containsKey(resourceUUID)) {
+                return map;
+            }
+        }
+        throw new FakeFault("Resource " + resourceUUID + " does not exist.");
+    }
+
+    private Job submit(final String itemUUID, final Runnable effect) {
+        final Job job = new Job();
+        job.setResourceUUID(UUID.randomUUID().toString());
+        job.setItemUUID(itemUUID);
+        job.setStatus(JobStatus.IN_PROGRESS);
+        put(ResourceType.JOB, job);
+
+        final CompletableFuture<Job> future = new CompletableFuture<>();
+        jobFutures.put(job.getResourceUUID(), future);
+        scheduler.schedule(() -> {
+            if (jobFailureRate > 0 && ThreadLocalRandom.current().nextDouble() < jobFailureRate) {
+                job.setStatus(JobStatus.FAILED);
+            } else {
+                effect.run();
+                job.setStatus(JobStatus.SUCCESSFUL);
+            }
+            future.complete(job);
+        }, jobDurationMillis, TimeUnit.MILLISECONDS);
+        return copy(job);
+    }
+
+    private static Job copy(final Job job) {
+        final Job copy = new Job();
+        copy.setResourceUUID(job.getResourceUUID());
+        copy.setItemUUID(job.getItemUUID());
+        copy.setStatus(job.getStatus());
+        return copy;
+    }
+
+    private void put(final ResourceType resourceType, final Resource resource) {
+        resources.get(resourceType).put(resource.getResourceUUID(), resource);
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Builder for the fake.
+     */
+    public static class FakeFcoBuilder {
+
+        private int clusters;
+        private int imagesPerVdc;
+        private int machineOffers;
+        private int diskOffers;
+        private int servers;
+        private long latencyMillis;
+        private long jobDurationMillis;
+        private double errorRate;
+        private double jobFailureRate;
+        private double maxRequestsPerSecond;
+
+        /**
+         * No-args constructor.
+         * <p>
+         * Initializes the builder with two clusters, each with one vdc, one network and
+         * five images, ten machine and ten disk offers, 100 servers, no latency, jobs
+         * finishing after 100 ms and no errors.
+         */
+        public FakeFcoBuilder() {
+            this.clusters = 2;
+            this.imagesPerVdc = 5;
+            this.machineOffers = 10;
+            this.diskOffers = 10;
+            this.servers = 100;
+            this.latencyMillis = 0;
+            this.jobDurationMillis = 100;
+            this.errorRate = 0;
+            this.jobFailureRate = 0;
+            this.maxRequestsPerSecond = 0;
+        }
+
+        public FakeFcoBuilder clusters(final int clusters) {
+            checkArgument(clusters > 0, "At least one cluster is required.");
+            this.clusters = clusters;
+            return this;
+        }
+
+        public FakeFcoBuilder imagesPerVdc(final int imagesPerVdc) {
+            this.imagesPerVdc = imagesPerVdc;
+            return this;
+        }
+
+        public FakeFcoBuilder productOffers(final int machineOffers, final int diskOffers) {
+            this.machineOffers = machineOffers;
+            this.diskOffers = diskOffers;
+            return this;
+        }
+
+        public FakeFcoBuilder servers(final int servers) {
+            this.servers = servers;
+            return this;
+        }
+
+        /**
+         * Sets the time every request is delayed by.
+         *
+         * @param latency the latency.
+         * @param unit    the unit of the latency.
+         * @return fluent interface
+         */
+        public FakeFcoBuilder latency(final long latency, final TimeUnit unit) {
+            this.latencyMillis = unit.toMillis(latency);
+            return this;
+        }
+
+        /**
+         * Sets the time until a job finishes.
+         *
+         * @param jobDuration the duration of jobs.
+         * @param unit        the unit of the duration.
+         * @return fluent interface
+         */
+        public FakeFcoBuilder jobDuration(final long jobDuration, final TimeUnit unit) {
+            this.jobDurationMillis = unit.toMillis(jobDuration);
+            return this;
+        }
+
+        /**
+         * Sets the fraction of requests failed with a SOAP fault.
+         *
+         * @param errorRate the fraction between 0 and 1.
+         * @return fluent interface
+         */
+        public FakeFcoBuilder errorRate(final double errorRate) {
+            checkArgument(errorRate >= 0 && errorRate <= 1);
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /**
+         * Sets the fraction of jobs finishing with status FAILED.
+         *
+         * @param jobFailureRate the fraction between 0 and 1.
+         * @return fluent interface
+         */
+        public FakeFcoBuilder jobFailureRate(final double jobFailureRate) {
+            checkArgument(jobFailureRate >= 0 && jobFailureRate <= 1);
+            this.jobFailureRate = jobFailureRate;
+            return this;
+        }
+
+        /**
+         * Throttles the requests exceeding the given rate with a SOAP fault.
+         *
+         * @param maxRequestsPerSecond the maximum rate, 0 for no throttling.
+         * @return fluent interface
+         */
+        public FakeFcoBuilder throttle(final double maxRequestsPerSecond) {
+            checkArgument(maxRequestsPerSecond >= 0);
+            this.maxRequestsPerSecond = maxRequestsPerSecond;
+            return this;
+        }
+
+        public FakeFco build() {
+            return new FakeFco(this);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.fake;
+
+import io.github.cloudiator.flexiant.extility.ObjectFactory;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.namespace.QName;
+import javax.xml.soap.SOAPConstants;
+import javax.xml.soap.SOAPException;
+import javax.xml.soap.SOAPFactory;
+import javax.xml.transform.Source;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.ws.Provider;
+import javax.xml.ws.Service;
+import javax.xml.ws.ServiceMode;
+import javax.xml.ws.WebServiceException;
+import javax.xml.ws.WebServiceProvider;
+import javax.xml.ws.soap.SOAPFaultException;
+import java.lang.reflect.Method;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * SOAP endpoint of the {@link FakeFco}.
+ * <p>
+ * Requests and responses are mapped with the JAXB classes generated from the WSDL, so
+ * the fake speaks exactly the protocol of the client. The arguments of a request are
+ * looked up by their type, and the result is set on the response wrapper of the
+ * operation, so the fake does not depend on the part names of the WSDL.
+ * <p>
+ * The class is public as required by JAX-WS, but only created by the fake.
+ */
+@WebServiceProvider(serviceName = "UserAPI", portName = "UserServicePort",
+    targetNamespace = "http://extility.flexiant.net") @ServiceMode(Service.Mode.PAYLOAD)
+public class FakeFcoProvider implements Provider<Source> {
+
+    private static final JAXBContext CONTEXT = createContext();
+    private static final ObjectFactory OBJECT_FACTORY = new ObjectFactory();
+
+    private final FakeFco fco;
+
+    FakeFcoProvider(final FakeFco fco) {
+        checkNotNull(fco);
+        this.fco = fco;
+    }
+
+    private static JAXBContext createContext() {
+        try {
+            return JAXBContext.newInstance(ObjectFactory.class);
+        } catch (JAXBException e) {
+            throw new IllegalStateException("Could not create JAXB context.", e);
+        }
+    }
+
+    @Override public Source invoke(final Source request) {
+        try {
+            final Object unmarshalled = CONTEXT.createUnmarshaller().unmarshal(request);
+            final JAXBElement<?> element = (JAXBElement<?>) unmarshalled;
+            final String operation = element.getName().getLocalPart();
+
+            final Object result;
+            try {
+                final Object wrapper = element.getValue();
+                result = fco.handle(operation, type -> argument(wrapper, type));
+            } catch (FakeFault e) {
+                throw fault(e.getMessage());
+            }
+
+            final DOMResult payload = new DOMResult();
+            CONTEXT.createMarshaller().marshal(response(operation, result), payload);
+            return new DOMSource(payload.getNode());
+        } catch (JAXBException | ReflectiveOperationException e) {
+            throw new WebServiceException("Could not handle request.", e);
+        }
+    }
+
+    /**
+     * Returns the argument of the given type of a request wrapper.
+     *
+     * @param request the request wrapper.
+     * @param type    the type of the argument.
+     * @param <T>     the type of the argument.
+     * @return the first argument of the type, null if it is not set.
+     */
+    static <T> T argument(final Object request, final Class<T> type) {
+        for (Method method : request.getClass().getMethods()) {
+            if (method.getParameterCount() == 0 && method.getReturnType() == type && method
+                .getName().startsWith("get")) {
+                try {
+                    return type.cast(method.invoke(request));
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        throw new FakeFault(String
+            .format("Request %s has no argument of type %s.", request.getClass().getSimpleName(),
+                type.getSimpleName()));
+    }
+
+    /**
+     * Wraps the result of an operation into its response element.
+     *
+     * @param operation the name of the operation.
+     * @param result    the result of the operation.
+     * @return the response element, which can be marshalled by JAXB.
+     * @throws ReflectiveOperationException if the operation has no response wrapper.
+     */
+    public static Object response(final String operation, final Object result)
+        throws ReflectiveOperationException {
+        final String wrapperName = Character.toUpperCase(operation.charAt(0)) + operation
+            .substring(1) + "Response";
+        final Class<?> wrapperClass =
+            Class.forName(ObjectFactory.class.getPackage().getName() + "." + wrapperName);
+        final Object wrapper = wrapperClass.getConstructor().newInstance();
+        for (Method method : wrapperClass.getMethods()) {
+            if (method.getName().startsWith("set") && method.getParameterCount() == 1 && method
+                .getParameterTypes()[0].isInstance(result)) {
+                method.invoke(wrapper, result);
+            }
+        }
+        return ObjectFactory.class
+            .getMethod("create" + wrapperName, wrapperClass).invoke(OBJECT_FACTORY, wrapper);
+    }
+
+    static SOAPFaultException fault(final String message) {
+        try {
+            return new SOAPFaultException(SOAPFactory.newInstance()
+                .createFault(message, new QName(SOAPConstants.URI_NS_SOAP_ENVELOPE, "Server")));
+        } catch (SOAPException e) {
+            throw new WebServiceException(message, e);
+        }
+    }
+}
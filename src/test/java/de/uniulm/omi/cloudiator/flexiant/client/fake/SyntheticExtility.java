@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package de.uniulm.omi.cloudiator.flexiant.client.fake;
+
+import io.github.cloudiator.flexiant.extility.Cluster;
+import io.github.cloudiator.flexiant.extility.Ip;
+import io.github.cloudiator.flexiant.extility.IpType;
+import io.github.cloudiator.flexiant.extility.NetworkType;
+import io.github.cloudiator.flexiant.extility.Nic;
+import io.github.cloudiator.flexiant.extility.ProductComponent;
+import io.github.cloudiator.flexiant.extility.ProductOffer;
+import io.github.cloudiator.flexiant.extility.Server;
+import io.github.cloudiator.flexiant.extility.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Builds synthetic extility objects, shaped like the ones returned by the api.
+ * <p>
+ * All objects are derived from a fixed seed, so every run uses the same data.
+ */
+public final class SyntheticExtility {
+
+    private static final long SEED = 42;
+
+    private SyntheticExtility() {
+        throw new AssertionError("Do not instantiate");
+    }
+
+    /**
+     * Creates clusters.
+     *
+     * @param count the number of clusters.
+     * @return the clusters.
+     */
+    public static List<Cluster> clusters(final int count) {
+        final Random random = new Random(SEED);
+        final List<Cluster> clusters = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final Cluster cluster = new Cluster();
+            cluster.setResourceUUID(uuid(random));
+            cluster.setResourceName("cluster-" + i);
+            clusters.add(cluster);
+        }
+        return clusters;
+    }
+
+    /**
+     * Creates machine offers (cpu and ram) and disk offers (size). Every fourth offer is
+     * available in all clusters, the others in a random subset of them.
+     *
+     * @param machines the number of machine offers.
+     * @param disks    the number of disk offers.
+     * @param clusters the clusters the offers are available in.
+     * @return the offers, machine offers first.
+     */
+    public static List<ProductOffer> productOffers(final int machines, final int disks,
+        final List<Cluster> clusters) {
+        final Random random = new Random(SEED);
+        final List<ProductOffer> offers = new ArrayList<>(machines + disks);
+        for (int i = 0; i < machines; i++) {
+            final ProductOffer offer = offer(random, "machine-" + i, clusters, i);
+            final ProductComponent component = new ProductComponent();
+            component.getProductConfiguredValues().add(value("cpu", 1 + random.nextInt(32)));
+            component.getProductConfiguredValues()
+                .add(value("ram", 512 * (1 + random.nextInt(64))));
+            offer.getComponentConfig().add(component);
+            offers.add(offer);
+        }
+        for (int i = 0; i < disks; i++) {
+            final ProductOffer offer = offer(random, "disk-" + i, clusters, i);
+            final ProductComponent component = new ProductComponent();
+            component.getProductConfiguredValues()
+                .add(value("size", 10 * (1 + random.nextInt(100))));
+            offer.getComponentConfig().add(component);
+            offers.add(offer);
+        }
+        return offers;
+    }
+
+    /**
+     * Creates servers with an ipv6 and an ipv4 address on an ip network, and a second
+     * nic on another network type.
+     *
+     * @param count    the number of servers.
+     * @param clusters the clusters the servers are distributed over.
+     * @return the servers.
+     */
+    public static List<Server> servers(final int count, final List<Cluster> clusters) {
+        final Random random = new Random(SEED);
+        final List<Server> servers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final Server server = new Server();
+            server.setResourceUUID(uuid(random));
+            server.setResourceName("server-" + i);
+            server.setClusterUUID(clusters.get(i % clusters.size()).getResourceUUID());
+            server.setVdcUUID(uuid(random));
+            server.setInitialUser("root");
+
+            final Nic other = new Nic();
+            other.setNetworkType(NetworkType.values()[NetworkType.values().length - 1]);
+            server.getNics().add(other);
+
+            final Nic nic = new Nic();
+            nic.setNetworkType(NetworkType.IP);
+            nic.getIpAddresses().add(ip(IpType.IPV_6, String.format("fd00::%x", i)));
+            nic.getIpAddresses().add(ip(IpType.IPV_4, ipv4(i)));
+            server.getNics().add(nic);
+
+            servers.add(server);
+        }
+        return servers;
+    }
+
+    /**
+     * Returns the ipv4 address of the server with the given index.
+     *
+     * @param index the index of the server, as created by {@link #servers(int, List)}.
+     * @return the ipv4 address.
+     */
+    public static String ipv4(final int index) {
+        return String.format("10.%d.%d.%d", (index >> 16) & 0xff, (index >> 8) & 0xff,
+            index & 0xff);
+    }
+
+    private static ProductOffer offer(final Random random, final String name,
+        final List<Cluster> clusters, final int index) {
+        final ProductOffer offer = new ProductOffer();
+        offer.setResourceUUID(uuid(random));
+        offer.setResourceName(name);
+        if (index % 4 != 0) {
+            for (Cluster cluster : clusters) {
+                if (random.nextBoolean()) {
+                    offer.getClusters().add(cluster.getResourceUUID());
+                }
+            }
+        }
+        return offer;
+    }
+
+    private static Value value(final String key, final int value) {
+        final Value v = new Value();
+        v.setKey(key);
+        v.setValue(String.valueOf(value));
+        return v;
+    }
+
+    private static Ip ip(final IpType type, final String address) {
+        final Ip ip = new Ip();
+        ip.setType(type);
+        ip.setIpAddress(address);
+        return ip;
+    }
+
+    private static String uuid(final Random random) {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+}
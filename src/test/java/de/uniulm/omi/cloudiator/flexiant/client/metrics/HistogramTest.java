@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the {@link Histogram}.
+ */
+public class HistogramTest {
+
+    /**
+     * Records the given value and a larger one, so that the median is the upper bound of
+     * the bucket of the value.
+     */
+    private static long bucketBound(final long value) {
+        final Histogram histogram = new Histogram();
+        histogram.record(value);
+        histogram.record(Long.MAX_VALUE);
+        return histogram.getPercentile(50);
+    }
+
+    @Test public void bucketBoundaries() {
+        assertEquals(0, bucketBound(0));
+        assertEquals(1, bucketBound(1));
+        assertEquals(3, bucketBound(2));
+        assertEquals(3, bucketBound(3));
+        assertEquals(7, bucketBound(4));
+        assertEquals(1023, bucketBound(1023));
+        assertEquals(2047, bucketBound(1024));
+        assertEquals((1L << 62) - 1, bucketBound((1L << 61) + 1));
+    }
+
+    @Test public void negativeValuesAreRecordedAsZero() {
+        final Histogram histogram = new Histogram();
+        histogram.record(-5);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getSum());
+        assertEquals(0, histogram.getPercentile(100));
+    }
+
+    @Test public void largestValuesFallIntoTheLastBucket() {
+        final Histogram histogram = new Histogram();
+        histogram.record(1L << 62);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+    }
+
+    @Test public void percentilesAreBoundedByTheirBucketAndTheMaximum() {
+        final Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMean(), 0.001);
+        assertEquals(1, histogram.getPercentile(0));
+        // the 50th value lies in the bucket of 32 to 63
+        assertEquals(63, histogram.getPercentile(50));
+        // the 99th value lies in the bucket of 64 to 127, capped at the maximum
+        assertEquals(100, histogram.getPercentile(99));
+        assertEquals(100, histogram.getPercentile(100));
+    }
+
+    @Test public void emptyHistogram() {
+        final Histogram histogram = new Histogram();
+
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals(0, histogram.getMean(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class) public void rejectsInvalidPercentiles() {
+        new Histogram().getPercentile(101);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2014-2015 University of Ulm
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.  Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.uniulm.omi.cloudiator.flexiant.client.recording;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link Recording} format.
+ */
+public class RecordingTest {
+
+    private static final String REQUEST = "<soap:Envelope "
+        + "xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\" xmlns:u=\"urn:user\">"
+        + "<soap:Body><u:listResources><u:type>SERVER</u:type></u:listResources></soap:Body>"
+        + "</soap:Envelope>";
+
+    private static final String REFORMATTED = "<e:Envelope "
+        + "xmlns:e=\"http://schemas.xmlsoap.org/soap/envelope/\" xmlns:x=\"urn:user\">\n"
+        + "  <e:Body>\n    <x:listResources>\n      <x:type> SERVER </x:type>\n"
+        + "    </x:listResources>\n  </e:Body>\n</e:Envelope>";
+
+    private static byte[] bytes(final String envelope) {
+        return envelope.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test public void entryOfMatchesKeyAndOperation() {
+        final Recording.Entry entry = Recording.entryOf(7, bytes(REQUEST), 42, true);
+
+        assertEquals(7, entry.getSequence());
+        assertEquals("listResources", entry.getOperation());
+        assertEquals(Recording.operationOf(bytes(REQUEST)), entry.getOperation());
+        assertEquals(Recording.keyOf(bytes(REQUEST)), entry.getKey());
+        assertEquals(42, entry.getDurationMicros());
+        assertTrue(entry.isFault());
+    }
+
+    @Test public void keyIgnoresPrefixesAndFormatting() {
+        assertEquals(Recording.keyOf(bytes(REQUEST)), Recording.keyOf(bytes(REFORMATTED)));
+    }
+
+    @Test public void indexLineRoundTrips() {
+        final Recording.Entry entry = Recording.entryOf(3, bytes(REQUEST), 10, false);
+        final Recording.Entry parsed = Recording.Entry.parse(entry.toLine().trim());
+
+        assertEquals(entry.getSequence(), parsed.getSequence());
+        assertEquals(entry.getOperation(), parsed.getOperation());
+        assertEquals(entry.getKey(), parsed.getKey());
+        assertEquals(entry.getDurationMicros(), parsed.getDurationMicros());
+        assertEquals(entry.isFault(), parsed.isFault());
+    }
+
+    @Test(expected = IllegalArgumentException.class) public void entryOfRejectsGarbage() {
+        Recording.entryOf(0, bytes("not xml"), 0, false);
+    }
+}